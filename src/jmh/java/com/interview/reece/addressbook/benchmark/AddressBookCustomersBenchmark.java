@@ -0,0 +1,61 @@
+package com.interview.reece.addressbook.benchmark;
+
+import com.interview.reece.addressbook.dto.CustomerDTO;
+import com.interview.reece.addressbook.dto.CustomerPageResult;
+import com.interview.reece.addressbook.service.AddressBookService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures listing the customers of one address book, which holds a quarter of the generated customers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AddressBookCustomersBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"1000", "10000", "100000"})
+    private int customerCount;
+
+    @Param({"1", "5"})
+    private int phoneNumbersPerCustomer;
+
+    @Param({"0.0", "0.5"})
+    private double duplicateNameRatio;
+
+    private ConfigurableApplicationContext context;
+
+    private AddressBookService addressBookService;
+
+    private long addressBookId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkData.start();
+        addressBookId = BenchmarkData.seed(context, customerCount, phoneNumbersPerCustomer, duplicateNameRatio)[0];
+        addressBookService = context.getBean(AddressBookService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<CustomerDTO> allCustomers() {
+        return addressBookService.getAllCustomerByAddressBookId(addressBookId);
+    }
+
+    @Benchmark
+    public CustomerPageResult firstPage() {
+        return addressBookService.getCustomersByAddressBookId(addressBookId, 0, PAGE_SIZE);
+    }
+}
@@ -0,0 +1,100 @@
+package com.interview.reece.addressbook.benchmark;
+
+import com.interview.reece.addressbook.AddressBookApplication;
+import com.interview.reece.addressbook.dto.request.AddressBookRequestDTO;
+import com.interview.reece.addressbook.dto.request.CustomerRequestDTO;
+import com.interview.reece.addressbook.service.AddressBookService;
+import com.interview.reece.addressbook.service.CustomerImportService;
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+/**
+ * Starts the application without the web server on its own in-memory H2 database and fills it with generated
+ * customers, so every benchmark trial runs against the same shape of data.
+ */
+final class BenchmarkData {
+
+    static final int ADDRESS_BOOKS = 4;
+
+    private static final AtomicInteger DATABASES = new AtomicInteger();
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Starts the application
+     *
+     * @param properties extra application properties as key=value
+     * @return the started application context
+     */
+    static ConfigurableApplicationContext start(final String... properties) {
+        return new SpringApplicationBuilder(AddressBookApplication.class)
+                .web(WebApplicationType.NONE)
+                .bannerMode(Banner.Mode.OFF)
+                .logStartupInfo(false)
+                .properties("spring.datasource.url=jdbc:h2:mem:benchmark" + DATABASES.incrementAndGet(),
+                        "logging.level.root=WARN")
+                .properties(properties)
+                .run();
+    }
+
+    /**
+     * Creates {@link #ADDRESS_BOOKS} address books and spreads the customers evenly over them
+     *
+     * @param context                 the started application context
+     * @param customerCount           the number of customers over all address books
+     * @param phoneNumbersPerCustomer the phone numbers of every customer, all distinct
+     * @param duplicateNameRatio      the share of customers named like another customer, 0 for all names distinct
+     * @return the address book ids
+     */
+    static long[] seed(final ConfigurableApplicationContext context, final int customerCount, final int phoneNumbersPerCustomer,
+                       final double duplicateNameRatio) {
+        final AddressBookService addressBookService = context.getBean(AddressBookService.class);
+        final CustomerImportService customerImportService = context.getBean(CustomerImportService.class);
+        final int distinctNames = Math.max(1, (int) Math.round(customerCount * (1 - duplicateNameRatio)));
+
+        final long[] addressBookIds = new long[ADDRESS_BOOKS];
+        for (int book = 0; book < ADDRESS_BOOKS; book++) {
+            final int currentBook = book;
+            addressBookIds[book] = addressBookService.createAddressBook(new AddressBookRequestDTO("Address Book " + book)).getId();
+            final Iterator<CustomerRequestDTO> customers = IntStream.range(0, customerCount)
+                    .filter(customer -> customer % ADDRESS_BOOKS == currentBook)
+                    .mapToObj(customer -> customer(customer, customer % distinctNames, phoneNumbersPerCustomer))
+                    .iterator();
+            customerImportService.importCustomers(addressBookIds[book], customers);
+        }
+        return addressBookIds;
+    }
+
+    /**
+     * Builds a customer request with distinct phone numbers
+     *
+     * @param customer                the customer number
+     * @param name                    the name number, shared by customers that should merge
+     * @param phoneNumbersPerCustomer the number of phone numbers
+     * @return the request
+     */
+    static CustomerRequestDTO customer(final int customer, final int name, final int phoneNumbersPerCustomer) {
+        return new CustomerRequestDTO(name(name), phoneNumbers(customer, phoneNumbersPerCustomer));
+    }
+
+    static String name(final int name) {
+        return "Customer %08d".formatted(name);
+    }
+
+    static Set<String> phoneNumbers(final int customer, final int phoneNumbersPerCustomer) {
+        final Set<String> phoneNumbers = new HashSet<>();
+        for (int phoneNumber = 0; phoneNumber < phoneNumbersPerCustomer; phoneNumber++) {
+            phoneNumbers.add("%08d%02d".formatted(customer, phoneNumber));
+        }
+        return phoneNumbers;
+    }
+}
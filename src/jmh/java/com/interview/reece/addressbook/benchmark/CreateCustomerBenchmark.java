@@ -0,0 +1,63 @@
+package com.interview.reece.addressbook.benchmark;
+
+import com.interview.reece.addressbook.dto.CustomerDTO;
+import com.interview.reece.addressbook.dto.request.CustomerRequestDTO;
+import com.interview.reece.addressbook.model.PooledSequenceGenerator;
+import com.interview.reece.addressbook.service.AddressBookService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link AddressBookService#createCustomer}, including the id allocation and the post-commit index update,
+ * for different id allocation sizes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CreateCustomerBenchmark {
+
+    @Param({"1000", "100000"})
+    private int customerCount;
+
+    @Param({"1", "5"})
+    private int phoneNumbersPerCustomer;
+
+    @Param({"0.5"})
+    private double duplicateNameRatio;
+
+    @Param({"1", "50"})
+    private int allocationSize;
+
+    private ConfigurableApplicationContext context;
+
+    private AddressBookService addressBookService;
+
+    private long addressBookId;
+
+    private int created;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkData.start("spring.jpa.properties." + PooledSequenceGenerator.ALLOCATION_SIZE_SETTING + "=" + allocationSize);
+        addressBookId = BenchmarkData.seed(context, customerCount, phoneNumbersPerCustomer, duplicateNameRatio)[0];
+        addressBookService = context.getBean(AddressBookService.class);
+        created = customerCount;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public CustomerDTO createCustomer() {
+        final int customer = created++;
+        final CustomerRequestDTO request = BenchmarkData.customer(customer, customer, phoneNumbersPerCustomer);
+        return addressBookService.createCustomer(addressBookId, request);
+    }
+}
@@ -0,0 +1,56 @@
+package com.interview.reece.addressbook.benchmark;
+
+import com.interview.reece.addressbook.dto.CustomerDTO;
+import com.interview.reece.addressbook.model.AddressBook;
+import com.interview.reece.addressbook.model.Customer;
+import com.interview.reece.addressbook.service.CustomerConverter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures converting loaded customers to DTOs, without any database access.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CustomerConversionBenchmark {
+
+    @Param({"1000", "100000"})
+    private int customerCount;
+
+    @Param({"1", "5"})
+    private int phoneNumbersPerCustomer;
+
+    @Param({"0.0", "0.5"})
+    private double duplicateNameRatio;
+
+    private List<Customer> customers;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final AddressBook addressBook = new AddressBook("Address Book");
+        final int distinctNames = Math.max(1, (int) Math.round(customerCount * (1 - duplicateNameRatio)));
+        customers = new ArrayList<>(customerCount);
+        for (int customer = 0; customer < customerCount; customer++) {
+            final Customer entity = new Customer(BenchmarkData.name(customer % distinctNames),
+                    BenchmarkData.phoneNumbers(customer, phoneNumbersPerCustomer), addressBook);
+            entity.setPk((long) customer);
+            customers.add(entity);
+        }
+    }
+
+    @Benchmark
+    public List<CustomerDTO> convertCustomers() {
+        final List<CustomerDTO> customerDTOs = new ArrayList<>(customers.size());
+        for (final Customer customer : customers) {
+            customerDTOs.add(CustomerConverter.toCustomerDTO(customer));
+        }
+        return customerDTOs;
+    }
+}
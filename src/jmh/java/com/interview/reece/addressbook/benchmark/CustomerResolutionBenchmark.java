@@ -0,0 +1,67 @@
+package com.interview.reece.addressbook.benchmark;
+
+import com.interview.reece.addressbook.aggregate.CustomerSnapshot;
+import com.interview.reece.addressbook.index.ResolvedCustomerIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures resolving every customer into people on {@link ResolvedCustomerIndex}, as done when the indexes are
+ * rebuilt, and resolving again after a single change once loaded.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class CustomerResolutionBenchmark {
+
+    @Param({"100000", "1000000", "3000000"})
+    private int customerCount;
+
+    @Param({"0.5", "0.9"})
+    private double duplicateNameRatio;
+
+    private CustomerSnapshot[] customers;
+
+    private ResolvedCustomerIndex loadedIndex;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final int distinctNames = Math.max(1, (int) Math.round(customerCount * (1 - duplicateNameRatio)));
+        customers = new CustomerSnapshot[customerCount];
+        for (int customer = 0; customer < customerCount; customer++) {
+            // every other customer shares a phone number with the previous customer of the same name
+            final int name = customer % distinctNames;
+            final int link = customer >= distinctNames && customer % 2 == 0 ? customer - distinctNames : customer;
+            customers[customer] = new CustomerSnapshot(customer + 1, BenchmarkData.name(name), customer % BenchmarkData.ADDRESS_BOOKS,
+                    Set.of("%08d00".formatted(link), "%08d01".formatted(customer)));
+        }
+        loadedIndex = load();
+    }
+
+    @Benchmark
+    public ResolvedCustomerIndex resolveAll() {
+        return load();
+    }
+
+    @Benchmark
+    public long resolveAfterChange() {
+        final CustomerSnapshot customer = customers[customerCount / 2];
+        loadedIndex.remove(customer);
+        loadedIndex.add(customer);
+        return loadedIndex.count();
+    }
+
+    private ResolvedCustomerIndex load() {
+        final ResolvedCustomerIndex index = new ResolvedCustomerIndex();
+        for (final CustomerSnapshot customer : customers) {
+            index.add(customer);
+        }
+        index.markReady();
+        return index;
+    }
+}
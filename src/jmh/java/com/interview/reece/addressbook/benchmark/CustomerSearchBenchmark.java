@@ -0,0 +1,59 @@
+package com.interview.reece.addressbook.benchmark;
+
+import com.interview.reece.addressbook.aggregate.CustomerSnapshot;
+import com.interview.reece.addressbook.index.CustomerSearchIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the latency distribution of {@link CustomerSearchIndex#search} over millions of customers, run with
+ * several threads to include contention with the readers of a busy server.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@Threads(4)
+public class CustomerSearchBenchmark {
+
+    private static final int LIMIT = 20;
+
+    @Param({"100000", "1000000", "3000000"})
+    private int customerCount;
+
+    @Param({"1", "3"})
+    private int phoneNumbersPerCustomer;
+
+    @Param({"0.5"})
+    private double duplicateNameRatio;
+
+    private CustomerSearchIndex customerSearchIndex;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final int distinctNames = Math.max(1, (int) Math.round(customerCount * (1 - duplicateNameRatio)));
+        customerSearchIndex = new CustomerSearchIndex();
+        for (int customer = 0; customer < customerCount; customer++) {
+            customerSearchIndex.add(new CustomerSnapshot(customer, BenchmarkData.name(customer % distinctNames),
+                    customer % BenchmarkData.ADDRESS_BOOKS, BenchmarkData.phoneNumbers(customer, phoneNumbersPerCustomer)));
+        }
+        customerSearchIndex.markReady();
+    }
+
+    @Benchmark
+    public List<CustomerSnapshot> searchByNamePrefix() {
+        final int customer = ThreadLocalRandom.current().nextInt(customerCount);
+        return customerSearchIndex.search(BenchmarkData.name(customer).substring(0, 14), LIMIT);
+    }
+
+    @Benchmark
+    public List<CustomerSnapshot> searchByPhoneNumber() {
+        final int customer = ThreadLocalRandom.current().nextInt(customerCount);
+        return customerSearchIndex.search("%08d00".formatted(customer), LIMIT);
+    }
+}
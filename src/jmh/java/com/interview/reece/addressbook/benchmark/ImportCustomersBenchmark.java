@@ -0,0 +1,64 @@
+package com.interview.reece.addressbook.benchmark;
+
+import com.interview.reece.addressbook.dto.CustomerImportResult;
+import com.interview.reece.addressbook.dto.request.CustomerRequestDTO;
+import com.interview.reece.addressbook.model.PooledSequenceGenerator;
+import com.interview.reece.addressbook.service.CustomerImportService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Measures {@link CustomerImportService#importCustomers}, where ids are taken for whole JDBC batches at a time, for
+ * different id allocation sizes. Complements {@link CreateCustomerBenchmark}, which takes one id per transaction.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ImportCustomersBenchmark {
+
+    @Param({"10000"})
+    private int importSize;
+
+    @Param({"1", "5"})
+    private int phoneNumbersPerCustomer;
+
+    @Param({"1", "50", "500"})
+    private int allocationSize;
+
+    private ConfigurableApplicationContext context;
+
+    private CustomerImportService customerImportService;
+
+    private long addressBookId;
+
+    private int imported;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkData.start("spring.jpa.properties." + PooledSequenceGenerator.ALLOCATION_SIZE_SETTING + "=" + allocationSize);
+        addressBookId = BenchmarkData.seed(context, 0, phoneNumbersPerCustomer, 0)[0];
+        customerImportService = context.getBean(CustomerImportService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public CustomerImportResult importCustomers() {
+        final int first = imported;
+        imported += importSize;
+        final Iterator<CustomerRequestDTO> customers = IntStream.range(first, first + importSize)
+                .mapToObj(customer -> BenchmarkData.customer(customer, customer, phoneNumbersPerCustomer))
+                .iterator();
+        return customerImportService.importCustomers(addressBookId, customers);
+    }
+}
@@ -0,0 +1,45 @@
+package com.interview.reece.addressbook.benchmark;
+
+import com.interview.reece.addressbook.aggregate.CustomerSnapshot;
+import com.interview.reece.addressbook.index.PhoneNumberIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures reverse phone number lookups on {@link PhoneNumberIndex} with concurrent readers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@Threads(4)
+public class PhoneNumberLookupBenchmark {
+
+    @Param({"100000", "1000000", "3000000"})
+    private int customerCount;
+
+    @Param({"1", "3"})
+    private int phoneNumbersPerCustomer;
+
+    private PhoneNumberIndex phoneNumberIndex;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        phoneNumberIndex = new PhoneNumberIndex();
+        for (int customer = 0; customer < customerCount; customer++) {
+            phoneNumberIndex.add(new CustomerSnapshot(customer + 1, BenchmarkData.name(customer),
+                    customer % BenchmarkData.ADDRESS_BOOKS, BenchmarkData.phoneNumbers(customer, phoneNumbersPerCustomer)));
+        }
+        phoneNumberIndex.markReady();
+    }
+
+    @Benchmark
+    public long[] findCustomerIds() {
+        final int customer = ThreadLocalRandom.current().nextInt(customerCount);
+        return phoneNumberIndex.findCustomerIds("%08d00".formatted(customer));
+    }
+}
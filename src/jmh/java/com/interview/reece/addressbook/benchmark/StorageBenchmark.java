@@ -0,0 +1,93 @@
+package com.interview.reece.addressbook.benchmark;
+
+import com.interview.reece.addressbook.dto.CustomerDTO;
+import com.interview.reece.addressbook.dto.CustomerPageResult;
+import com.interview.reece.addressbook.dto.PageCursor;
+import com.interview.reece.addressbook.service.AddressBookService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the in-memory database with the file backed one of the {@code file} profile: customer writes, page reads
+ * of one address book spread over the whole book, and the heap left in use once the customers are loaded, which is
+ * printed after the seed. Both keep the customer indexes on the heap, the difference is the table data.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx16g")
+public class StorageBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"100000", "10000000"})
+    private int customerCount;
+
+    @Param({"mem", "file"})
+    private String storage;
+
+    private ConfigurableApplicationContext context;
+
+    private AddressBookService addressBookService;
+
+    private Path databaseDir;
+
+    private long addressBookId;
+
+    private long firstCustomerId;
+
+    private int customersPerBook;
+
+    private int created;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        if ("file".equals(storage)) {
+            databaseDir = Files.createTempDirectory("addressbook-benchmark");
+            context = BenchmarkData.start("spring.profiles.active=file", "addressbook.db.dir=" + databaseDir.toAbsolutePath());
+        } else {
+            context = BenchmarkData.start();
+        }
+        addressBookId = BenchmarkData.seed(context, customerCount, 1, 0.5)[0];
+        addressBookService = context.getBean(AddressBookService.class);
+        // the customers of a book are seeded together, so their ids are one contiguous range
+        firstCustomerId = addressBookService.getCustomersByAddressBookId(addressBookId, 0, 1).getResults().get(0).getId();
+        customersPerBook = customerCount / BenchmarkData.ADDRESS_BOOKS;
+        created = customerCount;
+
+        System.gc();
+        final long heapUsed = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+        System.out.printf("%n%s storage with %d customers: %d MB heap used after seed%n", storage, customerCount, heapUsed / (1024 * 1024));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+        if (databaseDir != null) {
+            FileSystemUtils.deleteRecursively(databaseDir);
+        }
+    }
+
+    @Benchmark
+    public CustomerDTO createCustomer() {
+        final int customer = created++;
+        return addressBookService.createCustomer(addressBookId, BenchmarkData.customer(customer, customer, 1));
+    }
+
+    @Benchmark
+    public CustomerPageResult readPage() {
+        // seek to a random customer by cursor, an offset would read every row before the page
+        final long after = firstCustomerId + ThreadLocalRandom.current().nextInt(customersPerBook - PAGE_SIZE) - 1;
+        return addressBookService.getCustomersByAddressBookIdAfter(addressBookId, PageCursor.encode(after), PAGE_SIZE);
+    }
+}
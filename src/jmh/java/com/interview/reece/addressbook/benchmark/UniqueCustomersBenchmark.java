@@ -0,0 +1,109 @@
+package com.interview.reece.addressbook.benchmark;
+
+import com.interview.reece.addressbook.aggregate.MergeCustomer;
+import com.interview.reece.addressbook.dto.CustomerPageResult;
+import com.interview.reece.addressbook.repository.CustomerRepository;
+import com.interview.reece.addressbook.service.AddressBookService;
+import com.interview.reece.addressbook.service.UniqueCustomerMerger;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link AddressBookService#getAllUniqueCustomers} served by the in-memory index against the native merge
+ * query it replaces and the streaming {@link UniqueCustomerMerger} used until the index is loaded.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UniqueCustomersBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"1000", "10000", "100000"})
+    private int customerCount;
+
+    @Param({"1", "5"})
+    private int phoneNumbersPerCustomer;
+
+    @Param({"0.0", "0.5", "0.9"})
+    private double duplicateNameRatio;
+
+    private ConfigurableApplicationContext context;
+
+    private AddressBookService addressBookService;
+
+    private CustomerRepository customerRepository;
+
+    private UniqueCustomerMerger uniqueCustomerMerger;
+
+    private int lastPage;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkData.start();
+        BenchmarkData.seed(context, customerCount, phoneNumbersPerCustomer, duplicateNameRatio);
+        addressBookService = context.getBean(AddressBookService.class);
+        customerRepository = context.getBean(CustomerRepository.class);
+        uniqueCustomerMerger = context.getBean(UniqueCustomerMerger.class);
+        lastPage = (int) addressBookService.getAllUniqueCustomers(0, PAGE_SIZE).getTotalPages() - 1;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public CustomerPageResult firstPage() {
+        return addressBookService.getAllUniqueCustomers(0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public CustomerPageResult lastPage() {
+        return addressBookService.getAllUniqueCustomers(lastPage, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public CustomerPageResult firstPageWithoutTotals() {
+        return addressBookService.getAllUniqueCustomers(0, PAGE_SIZE, false);
+    }
+
+    @Benchmark
+    public Page<MergeCustomer> firstPageFromDatabase() {
+        return customerRepository.findDistinctName(PageRequest.of(0, PAGE_SIZE, Sort.by("name")));
+    }
+
+    @Benchmark
+    public Page<MergeCustomer> lastPageFromDatabase() {
+        return customerRepository.findDistinctName(PageRequest.of(lastPage, PAGE_SIZE, Sort.by("name")));
+    }
+
+    @Benchmark
+    public Page<MergeCustomer> firstPageMerged() {
+        return uniqueCustomerMerger.findAll(PageRequest.of(0, PAGE_SIZE));
+    }
+
+    @Benchmark
+    public Page<MergeCustomer> lastPageMerged() {
+        return uniqueCustomerMerger.findAll(PageRequest.of(lastPage, PAGE_SIZE));
+    }
+
+    @Benchmark
+    public Slice<MergeCustomer> firstPageMergedWithoutTotals() {
+        return uniqueCustomerMerger.findSlice(PageRequest.of(0, PAGE_SIZE));
+    }
+
+    @Benchmark
+    public Slice<MergeCustomer> firstPageFromDatabaseWithoutTotals() {
+        return customerRepository.findDistinctNameSlice(PageRequest.of(0, PAGE_SIZE, Sort.by("name")));
+    }
+}
@@ -0,0 +1,212 @@
+package com.interview.reece.addressbook.loadtest;
+
+import com.interview.reece.addressbook.AddressBookApplication;
+import org.springframework.boot.Banner;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Compares throughput and latency of the application started with different profiles, by default the platform
+ * thread pool against the virtual-threads profile. For each profile the application is started on a random port
+ * with its own in-memory database, seeded over HTTP, then hammered by closed-loop clients, each running on its own
+ * virtual thread and sending the next request once the previous one answered. Most requests read pages of customers
+ * from the database, one in ten creates a customer.
+ * <p>
+ * Arguments, all optional: {@code --clients=5000 --duration=60 --warmup=15 --customers=20000
+ * --profiles=default,virtual-threads}. The clients share the JVM with the server, so compare the profiles with each
+ * other rather than reading the numbers as absolute capacity.
+ */
+public final class AddressBookLoadTest {
+
+    private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+
+    private final HttpClient httpClient;
+
+    private final String baseUrl;
+
+    private final long[] addressBookIds;
+
+    private AddressBookLoadTest(final HttpClient httpClient, final String baseUrl, final long[] addressBookIds) {
+        this.httpClient = httpClient;
+        this.baseUrl = baseUrl;
+        this.addressBookIds = addressBookIds;
+    }
+
+    public static void main(final String[] args) throws Exception {
+        final int clients = Integer.parseInt(argument(args, "clients", "5000"));
+        final Duration duration = Duration.ofSeconds(Long.parseLong(argument(args, "duration", "60")));
+        final Duration warmup = Duration.ofSeconds(Long.parseLong(argument(args, "warmup", "15")));
+        final int customers = Integer.parseInt(argument(args, "customers", "20000"));
+        final List<String> profiles = Arrays.asList(argument(args, "profiles", "default,virtual-threads").split(","));
+
+        final List<String> results = new ArrayList<>();
+        for (final String profile : profiles) {
+            results.add(run(profile.trim(), clients, warmup, duration, customers));
+        }
+        System.out.println();
+        System.out.printf("%-20s %10s %12s %10s %10s %10s %10s%n", "profile", "requests", "requests/s", "p50 ms", "p99 ms", "max ms", "errors");
+        results.forEach(System.out::println);
+    }
+
+    private static String run(final String profile, final int clients, final Duration warmup, final Duration duration,
+                              final int customers) throws Exception {
+        final SpringApplicationBuilder application = new SpringApplicationBuilder(AddressBookApplication.class)
+                .bannerMode(Banner.Mode.OFF)
+                .logStartupInfo(false)
+                .properties("server.port=0", "spring.datasource.url=jdbc:h2:mem:loadtest-" + profile, "logging.level.root=WARN");
+        if (!"default".equals(profile)) {
+            application.profiles(profile);
+        }
+        try (ConfigurableApplicationContext context = application.run();
+             ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient httpClient = HttpClient.newBuilder().executor(executor).connectTimeout(Duration.ofSeconds(10)).build()) {
+            final int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            final AddressBookLoadTest loadTest = new AddressBookLoadTest(httpClient, "http://localhost:" + port + "/address-book",
+                    seed(httpClient, "http://localhost:" + port + "/address-book", customers));
+
+            loadTest.load(executor, clients, warmup);
+            final Result result = loadTest.load(executor, clients, duration);
+            return "%-20s %10d %12.0f %10.1f %10.1f %10.1f %10d".formatted(profile, result.requests(),
+                    result.requests() / (double) duration.toSeconds(), result.percentile(0.50), result.percentile(0.99),
+                    result.percentile(1), result.errors());
+        }
+    }
+
+    private Result load(final ExecutorService executor, final int clients, final Duration duration) throws Exception {
+        final long end = System.nanoTime() + duration.toNanos();
+        final List<Future<Result>> futures = new ArrayList<>(clients);
+        for (int client = 0; client < clients; client++) {
+            final int clientNumber = client;
+            futures.add(executor.submit(() -> client(clientNumber, end)));
+        }
+        final List<Result> results = new ArrayList<>(clients);
+        for (final Future<Result> future : futures) {
+            results.add(future.get());
+        }
+        return Result.merge(results);
+    }
+
+    private Result client(final int client, final long end) {
+        long[] latencies = new long[1024];
+        int requests = 0;
+        int errors = 0;
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (System.nanoTime() < end) {
+            final long addressBookId = addressBookIds[random.nextInt(addressBookIds.length)];
+            final HttpRequest request = random.nextInt(10) == 0
+                    ? post("/books/%d/customers".formatted(addressBookId), "{\"name\":\"Load %d\",\"phoneNumbers\":[\"%d\"]}".formatted(client, random.nextLong(1_000_000_000L)))
+                    : HttpRequest.newBuilder(URI.create(baseUrl + "/books/%d/customers?page=%d&pageSize=20".formatted(addressBookId, random.nextInt(50)))).GET().build();
+            final long start = System.nanoTime();
+            try {
+                final HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() >= 400) {
+                    errors++;
+                }
+            } catch (IOException e) {
+                errors++;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            if (requests == latencies.length) {
+                latencies = Arrays.copyOf(latencies, requests * 2);
+            }
+            latencies[requests++] = System.nanoTime() - start;
+        }
+        return new Result(Arrays.copyOf(latencies, requests), errors);
+    }
+
+    private static long[] seed(final HttpClient httpClient, final String baseUrl, final int customers) throws Exception {
+        final long[] addressBookIds = new long[10];
+        for (int book = 0; book < addressBookIds.length; book++) {
+            addressBookIds[book] = id(httpClient.send(post(baseUrl, "/books", "{\"title\":\"Load Book %d\"}".formatted(book)), HttpResponse.BodyHandlers.ofString()).body());
+            final StringBuilder bulk = new StringBuilder();
+            for (int customer = book; customer < customers; customer += addressBookIds.length) {
+                bulk.append("{\"name\":\"Customer %d\",\"phoneNumbers\":[\"%08d\"]}\n".formatted(customer, customer));
+            }
+            httpClient.send(HttpRequest.newBuilder(URI.create(baseUrl + "/books/%d/customers:bulk".formatted(addressBookIds[book])))
+                    .header("Content-Type", "application/x-ndjson")
+                    .POST(HttpRequest.BodyPublishers.ofString(bulk.toString()))
+                    .build(), HttpResponse.BodyHandlers.discarding());
+        }
+        return addressBookIds;
+    }
+
+    private HttpRequest post(final String path, final String json) {
+        return post(baseUrl, path, json);
+    }
+
+    private static HttpRequest post(final String baseUrl, final String path, final String json) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private static long id(final String json) {
+        final Matcher matcher = ID.matcher(json);
+        if (!matcher.find()) {
+            throw new IllegalStateException("No id in " + json);
+        }
+        return Long.parseLong(matcher.group(1));
+    }
+
+    private static String argument(final String[] args, final String name, final String defaultValue) {
+        return Arrays.stream(args)
+                .filter(arg -> arg.startsWith("--" + name + "="))
+                .map(arg -> arg.substring(name.length() + 3))
+                .findFirst()
+                .orElse(defaultValue);
+    }
+
+    /**
+     * Latencies in nanoseconds of the sent requests, sorted once merged, and the number of failed ones
+     */
+    private record Result(long[] latencies, int errors) {
+
+        private static Result merge(final List<Result> results) {
+            final long[] merged = new long[results.stream().mapToInt(Result::requests).sum()];
+            int offset = 0;
+            int errors = 0;
+            for (final Result result : results) {
+                System.arraycopy(result.latencies, 0, merged, offset, result.latencies.length);
+                offset += result.latencies.length;
+                errors += result.errors;
+            }
+            Arrays.sort(merged);
+            return new Result(merged, errors);
+        }
+
+        private int requests() {
+            return latencies.length;
+        }
+
+        /**
+         * @return the latency in milliseconds at the quantile of the merged result, 1 for the maximum
+         */
+        private double percentile(final double quantile) {
+            if (latencies.length == 0) {
+                return 0;
+            }
+            final int index = Math.max(0, (int) Math.ceil(quantile * latencies.length) - 1);
+            return latencies[index] / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.interview.reece.addressbook.aggregate;
+
+/**
+ * An address book without its customers, read without loading the entity.
+ */
+public interface AddressBookSummary {
+
+    Long getPk();
+
+    String getTitle();
+}
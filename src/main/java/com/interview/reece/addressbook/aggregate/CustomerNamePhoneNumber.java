@@ -0,0 +1,8 @@
+package com.interview.reece.addressbook.aggregate;
+
+/**
+ * The name of a customer with one of its phone numbers, read through a constructor expression so that no
+ * projection proxy is created per row.
+ */
+public record CustomerNamePhoneNumber(String name, String phoneNumber) {
+}
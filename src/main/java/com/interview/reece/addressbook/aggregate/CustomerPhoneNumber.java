@@ -0,0 +1,16 @@
+package com.interview.reece.addressbook.aggregate;
+
+/**
+ * A customer joined with one of its phone numbers. Customers without phone numbers have a single row with
+ * no phone number.
+ */
+public interface CustomerPhoneNumber {
+
+    Long getPk();
+
+    String getName();
+
+    Long getAddressBookId();
+
+    String getPhoneNumber();
+}
@@ -0,0 +1,71 @@
+package com.interview.reece.addressbook.aggregate;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Immutable copy of a customer with its phone numbers, detached from any persistence context.
+ */
+public final class CustomerSnapshot {
+
+    private final long pk;
+
+    private final String name;
+
+    private final long addressBookId;
+
+    private final Set<String> phoneNumbers;
+
+    public CustomerSnapshot(long pk, String name, long addressBookId, Set<String> phoneNumbers) {
+        this.pk = pk;
+        this.name = name;
+        this.addressBookId = addressBookId;
+        this.phoneNumbers = phoneNumbers == null ? Set.of() : Set.copyOf(phoneNumbers);
+    }
+
+    public long getPk() {
+        return pk;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getAddressBookId() {
+        return addressBookId;
+    }
+
+    public Set<String> getPhoneNumbers() {
+        return phoneNumbers;
+    }
+
+    /**
+     * Groups consecutive rows of the same customer into snapshots. Only one customer is held in memory at a time,
+     * so the rows must be ordered by customer pk.
+     *
+     * @param rows     the rows ordered by customer pk
+     * @param consumer receives each customer once all of its rows were read
+     */
+    public static void group(final Stream<CustomerPhoneNumber> rows, final Consumer<CustomerSnapshot> consumer) {
+        final Iterator<CustomerPhoneNumber> iterator = rows.iterator();
+        CustomerPhoneNumber current = null;
+        Set<String> phoneNumbers = new HashSet<>();
+        while (iterator.hasNext()) {
+            final CustomerPhoneNumber row = iterator.next();
+            if (current != null && !current.getPk().equals(row.getPk())) {
+                consumer.accept(new CustomerSnapshot(current.getPk(), current.getName(), current.getAddressBookId(), phoneNumbers));
+                phoneNumbers = new HashSet<>();
+            }
+            current = row;
+            if (row.getPhoneNumber() != null) {
+                phoneNumbers.add(row.getPhoneNumber());
+            }
+        }
+        if (current != null) {
+            consumer.accept(new CustomerSnapshot(current.getPk(), current.getName(), current.getAddressBookId(), phoneNumbers));
+        }
+    }
+}
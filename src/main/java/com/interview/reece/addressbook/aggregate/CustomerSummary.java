@@ -0,0 +1,11 @@
+package com.interview.reece.addressbook.aggregate;
+
+/**
+ * A customer without its phone numbers, read without loading the entity.
+ */
+public interface CustomerSummary {
+
+    Long getPk();
+
+    String getName();
+}
@@ -0,0 +1,23 @@
+package com.interview.reece.addressbook.aggregate;
+
+import java.util.Set;
+
+/**
+ * Customers resolved to the same person, named after the first of them.
+ *
+ * @param key          the sort key, unique even when several people share a name
+ * @param name         the name of the first customer
+ * @param phoneNumbers the normalized phone numbers of all of them
+ */
+public record ResolvedCustomer(String key, String name, Set<String> phoneNumbers) implements MergeCustomer {
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Set<String> getPhoneNumbers() {
+        return phoneNumbers;
+    }
+}
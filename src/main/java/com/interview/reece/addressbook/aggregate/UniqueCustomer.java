@@ -0,0 +1,19 @@
+package com.interview.reece.addressbook.aggregate;
+
+import java.util.Set;
+
+/**
+ * Customers sharing a name with the phone numbers of all of them.
+ */
+public record UniqueCustomer(String name, Set<String> phoneNumbers) implements MergeCustomer {
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Set<String> getPhoneNumbers() {
+        return phoneNumbers;
+    }
+}
@@ -0,0 +1,25 @@
+package com.interview.reece.addressbook.cache;
+
+import com.interview.reece.addressbook.dto.AddressBookDTO;
+
+import java.util.List;
+
+/**
+ * An unmodifiable list of every address book together with the version of the address books it was loaded at
+ *
+ * @param version      changes whenever an address book is created, updated or deleted
+ * @param addressBooks the address books
+ */
+public record AddressBookList(long version, List<AddressBookDTO> addressBooks) {
+
+    public AddressBookList {
+        addressBooks = List.copyOf(addressBooks);
+    }
+
+    /**
+     * @return the version as a strong HTTP entity tag
+     */
+    public String eTag() {
+        return "\"" + Long.toHexString(version) + "\"";
+    }
+}
@@ -0,0 +1,122 @@
+package com.interview.reece.addressbook.cache;
+
+import com.interview.reece.addressbook.dto.AddressBookDTO;
+import com.interview.reece.addressbook.model.AddressBook;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Caches the list of every address book. The list is dropped and its version bumped whenever an address book insert,
+ * update or delete commits, so readers never see a list older than their own writes. The version starts from the
+ * startup time so it is not reused by a restarted instance.
+ */
+@Component
+public class AddressBookListCache implements PostCommitInsertEventListener, PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    private long version = System.currentTimeMillis();
+
+    private AddressBookList addressBooks;
+
+    public AddressBookListCache(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @PostConstruct
+    void registerListeners() {
+        final EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    /**
+     * Returns the cached address books, loading them when the cache is empty
+     *
+     * @param loader loads every address book from the database
+     * @return the address books with their version
+     */
+    public AddressBookList get(final Supplier<List<AddressBookDTO>> loader) {
+        final long loadedVersion;
+        synchronized (this) {
+            if (addressBooks != null) {
+                return addressBooks;
+            }
+            loadedVersion = version;
+        }
+        final AddressBookList loaded = new AddressBookList(loadedVersion, loader.get());
+        synchronized (this) {
+            // a write committed while loading may not be part of the list, so only the caller gets it
+            if (version == loadedVersion) {
+                addressBooks = loaded;
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Drops the cached address books and moves to a new version
+     */
+    public synchronized void invalidate() {
+        version++;
+        addressBooks = null;
+    }
+
+    @Override
+    public void onPostInsert(final PostInsertEvent event) {
+        if (event.getEntity() instanceof AddressBook) {
+            invalidate();
+        }
+    }
+
+    @Override
+    public void onPostUpdate(final PostUpdateEvent event) {
+        if (event.getEntity() instanceof AddressBook) {
+            invalidate();
+        }
+    }
+
+    @Override
+    public void onPostDelete(final PostDeleteEvent event) {
+        if (event.getEntity() instanceof AddressBook) {
+            invalidate();
+        }
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(final PostInsertEvent event) {
+        // the cached list never held the rolled back address book
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(final PostUpdateEvent event) {
+        // the cached list never held the rolled back change
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(final PostDeleteEvent event) {
+        // the cached list still holds the address book that was not deleted
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(final EntityPersister persister) {
+        return AddressBook.class.equals(persister.getMappedClass());
+    }
+}
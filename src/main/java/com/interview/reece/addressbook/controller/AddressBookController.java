@@ -1,35 +1,75 @@
 package com.interview.reece.addressbook.controller;
 
+import com.interview.reece.addressbook.cache.AddressBookList;
 import com.interview.reece.addressbook.dto.AddressBookDTO;
+import com.interview.reece.addressbook.dto.BulkDeleteResult;
+import com.interview.reece.addressbook.dto.CustomerImportResult;
 import com.interview.reece.addressbook.dto.CustomerPageResult;
+import com.interview.reece.addressbook.dto.ExportFormat;
+import com.interview.reece.addressbook.dto.PhoneNumberOwnerDTO;
+import com.interview.reece.addressbook.dto.SnapshotResult;
+import com.interview.reece.addressbook.dto.UniqueCustomerStrategy;
 import com.interview.reece.addressbook.dto.request.AddressBookRequestDTO;
 import com.interview.reece.addressbook.dto.CustomerDTO;
+import com.interview.reece.addressbook.dto.request.CustomerPatchRequestDTO;
 import com.interview.reece.addressbook.dto.request.CustomerRequestDTO;
+import com.interview.reece.addressbook.service.AddressBookExportService;
 import com.interview.reece.addressbook.service.AddressBookService;
+import com.interview.reece.addressbook.service.BulkDeleteService;
+import com.interview.reece.addressbook.service.CustomerImportService;
+import com.interview.reece.addressbook.service.DatabaseSnapshotService;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/address-book")
 @Tag(name = "Address Book", description = "Address Book API")
 public class AddressBookController {
 
     private AddressBookService addressBookService;
+    private CustomerImportService customerImportService;
+    private AddressBookExportService addressBookExportService;
+    private BulkDeleteService bulkDeleteService;
+    private DatabaseSnapshotService databaseSnapshotService;
+    private ObjectMapper objectMapper;
 
-    public AddressBookController(AddressBookService addressBookService) {
+    public AddressBookController(AddressBookService addressBookService, CustomerImportService customerImportService,
+                                 AddressBookExportService addressBookExportService, BulkDeleteService bulkDeleteService,
+                                 DatabaseSnapshotService databaseSnapshotService, ObjectMapper objectMapper) {
         this.addressBookService = addressBookService;
+        this.customerImportService = customerImportService;
+        this.addressBookExportService = addressBookExportService;
+        this.bulkDeleteService = bulkDeleteService;
+        this.databaseSnapshotService = databaseSnapshotService;
+        this.objectMapper = objectMapper;
     }
 
     @GetMapping("/books")
-    @Operation(summary = "Get address books", description = "Return all address books")
-    public List<AddressBookDTO> getAddressBooks() {
-        return addressBookService.getAllAddressBooks();
+    @Operation(summary = "Get address books", description = "Return all address books. " +
+            "Send the ETag of a previous response as If-None-Match to get 304 Not Modified while no address book changed.")
+    public List<AddressBookDTO> getAddressBooks(final WebRequest request) {
+        final AddressBookList addressBooks = addressBookService.getAddressBookList();
+        if (request.checkNotModified(addressBooks.eTag())) {
+            return null;
+        }
+        return addressBooks.addressBooks();
     }
 
     @PostMapping("/books")
@@ -39,29 +79,142 @@ public class AddressBookController {
         return created(addressBook);
     }
 
+    @DeleteMapping("/books/{bookId}")
+    @Operation(summary = "Delete address book", description = "Delete the address book with id, its customers and their phone numbers")
+    public BulkDeleteResult removeAddressBook(@PathVariable final Long bookId) {
+        return this.bulkDeleteService.removeAddressBook(bookId);
+    }
+
     @GetMapping("/books/{bookId}/customers")
     @Operation(summary = "Get customers", description = "Get customers from the address book with id")
     public List<CustomerDTO> getCustomer(@PathVariable final Long bookId) {
         return this.addressBookService.getAllCustomerByAddressBookId(bookId);
     }
 
+    @GetMapping(value = "/books/{bookId}/customers", params = "pageSize")
+    @Operation(summary = "Get customers page", description = "Get a page of customers from the address book with id, ordered by id. " +
+            "Pass after with the nextCursor of the previous page (empty for the first page) to page by cursor instead of page number. " +
+            "pageSize must be between 1 and " + AddressBookService.MAX_PAGE_SIZE + ".")
+    public CustomerPageResult getCustomerPage(@PathVariable final Long bookId, @RequestParam(defaultValue = "0") final int page, @RequestParam final int pageSize,
+                                              @RequestParam(required = false) final String after) {
+        if (after != null) {
+            return this.addressBookService.getCustomersByAddressBookIdAfter(bookId, after, pageSize);
+        }
+        return this.addressBookService.getCustomersByAddressBookId(bookId, page, pageSize);
+    }
+
+    @GetMapping("/books/{bookId}/customers/stream")
+    @Operation(summary = "Stream customers", description = "Stream every customer from the address book with id as newline delimited JSON")
+    public ResponseEntity<StreamingResponseBody> streamCustomers(@PathVariable final Long bookId) {
+        final AddressBookDTO addressBook = this.addressBookService.getAddressBookById(bookId);
+        final StreamingResponseBody body = outputStream -> {
+            try (NdJsonWriter writer = new NdJsonWriter(objectMapper, outputStream)) {
+                this.addressBookService.streamCustomersByAddressBookId(addressBook.getId(), writer);
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
     @PostMapping("/books/{bookId}/customers")
-    @Operation(summary = "Create customer", description = "Create a new customer on the address book id")
-    public ResponseEntity<CustomerDTO> createCustomer(@PathVariable final Long bookId, @RequestBody @Valid final CustomerRequestDTO customerRequest) {
-        final CustomerDTO customer = this.addressBookService.createCustomer(bookId, customerRequest);
+    @Operation(summary = "Create customer", description = "Create a new customer on the address book id. " +
+            "With write-behind enabled the customer is queued and 202 Accepted returns its id before it is written, unless wait is true. " +
+            "A waiting request still gets 202 when the customer is not committed within the commit timeout, it is written later. " +
+            "429 Too Many Requests is returned while the queue is full.")
+    public ResponseEntity<CustomerDTO> createCustomer(@PathVariable final Long bookId, @RequestBody @Valid final CustomerRequestDTO customerRequest,
+                                                      @RequestParam(defaultValue = "false") final boolean wait) {
+        final CustomerDTO customer = this.addressBookService.createCustomer(bookId, customerRequest, wait);
+        if (!wait && this.addressBookService.isWriteBehindEnabled()) {
+            return ResponseEntity.accepted().body(customer);
+        }
         return created(customer);
     }
 
+    @PostMapping(value = "/books/{bookId}/customers:bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @Operation(summary = "Import customers", description = "Create customers on the address book id from a JSON array or newline delimited JSON. " +
+            "Customers that fail validation or cannot be stored are reported by position without stopping the import.")
+    public CustomerImportResult importCustomers(@PathVariable final Long bookId, final InputStream content) throws IOException {
+        try (MappingIterator<CustomerRequestDTO> customers = objectMapper.readerFor(CustomerRequestDTO.class).readValues(content)) {
+            return this.customerImportService.importCustomers(bookId, customers);
+        }
+    }
+
+    @GetMapping("/export")
+    @Operation(summary = "Export address books", description = "Stream every address book with its customers and phone numbers. " +
+            "CSV has one line per phone number, NDJSON one line per customer. Address books without customers and customers without " +
+            "phone numbers are exported with empty fields. Set gzip to true to download the export compressed.")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(defaultValue = "CSV") final ExportFormat format,
+                                                        @RequestParam(defaultValue = "false") final boolean gzip) {
+        final StreamingResponseBody body = outputStream -> this.addressBookExportService.export(format, gzip, outputStream);
+        return ResponseEntity.ok()
+                .contentType(format.mediaType(gzip))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(format.fileName(gzip)).build().toString())
+                .body(body);
+    }
+
+    @PostMapping("/snapshot")
+    @Operation(summary = "Snapshot the database", description = "Write every address book, customer and phone number to the binary snapshot file " +
+            "set by addressbook.snapshot.file. Start with addressbook.snapshot.restore-on-startup=true to load it into an empty database.")
+    public SnapshotResult writeSnapshot() throws IOException {
+        return this.databaseSnapshotService.writeSnapshot();
+    }
+
+    @PutMapping("/customers/{customerId}")
+    @Operation(summary = "Replace customer", description = "Replace the name and phone numbers of the customer with id. " +
+            "Only the phone numbers added or removed are written.")
+    public CustomerDTO updateCustomer(@PathVariable final Long customerId, @RequestBody @Valid final CustomerRequestDTO customerRequest) {
+        return this.addressBookService.updateCustomer(customerId, customerRequest);
+    }
+
+    @PatchMapping("/customers/{customerId}")
+    @Operation(summary = "Update customer", description = "Update the name or the phone numbers of the customer with id, fields left out are not changed. " +
+            "Only the phone numbers added or removed are written.")
+    public CustomerDTO patchCustomer(@PathVariable final Long customerId, @RequestBody @Valid final CustomerPatchRequestDTO patchRequest) {
+        return this.addressBookService.patchCustomer(customerId, patchRequest);
+    }
+
     @DeleteMapping("/customers/{customerId}")
     @Operation(summary = "Delete customer", description = "Delete a customer with id.")
     public void removeCustomer(@PathVariable final Long customerId) {
         this.addressBookService.removeCustomer(customerId);
     }
 
+    @PostMapping("/customers:bulkDelete")
+    @Operation(summary = "Delete customers", description = "Delete the customers with the ids in the body, a JSON array, and their phone numbers. " +
+            "Unknown ids are ignored.")
+    public BulkDeleteResult removeCustomers(@RequestBody final List<Long> customerIds) {
+        return this.bulkDeleteService.removeCustomers(customerIds);
+    }
+
     @GetMapping("/customers")
-    @Operation(summary = "Retrieve all unique customers", description = "Retrieve all unique customers regardless of which address book.Unique currently means same name only.")
-    public CustomerPageResult getAllCustomers(@RequestParam(defaultValue = "0") final int page, @RequestParam(defaultValue = "20") int pageSize) {
-        return this.addressBookService.getAllUniqueCustomers(page, pageSize);
+    @Operation(summary = "Retrieve all unique customers", description = "Retrieve all unique customers regardless of which address book. " +
+            "With strategy NAME customers with the same name are merged. With strategy NAME_AND_PHONE customers whose names match ignoring case, " +
+            "accents and punctuation are merged when they share a phone number, directly or through other customers with that name; " +
+            "it answers 503 while the customer indexes load at startup. " +
+            "Pass after with the nextCursor of the previous page (empty for the first page) to page by cursor instead of page number; " +
+            "page numbers are read by walking from the first customer, so deep pages are only fast by cursor. " +
+            "Set includeTotals to false to skip counting totalSize and totalPages. " +
+            "pageSize must be between 1 and " + AddressBookService.MAX_PAGE_SIZE + ".")
+    public CustomerPageResult getAllCustomers(@RequestParam(defaultValue = "0") final int page, @RequestParam(defaultValue = "20") int pageSize,
+                                              @RequestParam(required = false) final String after, @RequestParam(defaultValue = "true") final boolean includeTotals,
+                                              @RequestParam(defaultValue = "NAME") final UniqueCustomerStrategy strategy) {
+        if (after != null) {
+            return this.addressBookService.getAllUniqueCustomersAfter(after, pageSize, strategy);
+        }
+        return this.addressBookService.getAllUniqueCustomers(page, pageSize, includeTotals, strategy);
+    }
+
+    @GetMapping("/customers/search")
+    @Operation(summary = "Search customers", description = "Search customers of every address book by phone number, however it is formatted, " +
+            "and by the start of their name ignoring case. Customers owning the phone number come first, then name matches ordered by name. " +
+            "limit is brought within 1 and " + AddressBookService.MAX_SEARCH_LIMIT + ".")
+    public List<CustomerDTO> searchCustomers(@RequestParam final String q, @RequestParam(defaultValue = "20") final int limit) {
+        return this.addressBookService.searchCustomers(q, limit);
+    }
+
+    @GetMapping("/phone-numbers/{phoneNumber}")
+    @Operation(summary = "Find phone number owners", description = "Find the customers owning the phone number, however it is formatted, with their address book")
+    public List<PhoneNumberOwnerDTO> getPhoneNumberOwners(@PathVariable final String phoneNumber) {
+        return this.addressBookService.getPhoneNumberOwners(phoneNumber);
     }
 
     protected <T> ResponseEntity<T> created(final T body) {
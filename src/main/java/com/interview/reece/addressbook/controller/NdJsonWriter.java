@@ -0,0 +1,43 @@
+package com.interview.reece.addressbook.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Writes values to a response as newline delimited JSON. Values are not flushed one by one, the output
+ * is left to the container's response buffer.
+ */
+class NdJsonWriter implements Consumer<Object>, Closeable {
+
+    private final SequenceWriter sequenceWriter;
+
+    NdJsonWriter(final ObjectMapper objectMapper, final OutputStream outputStream) throws IOException {
+        this.sequenceWriter = objectMapper.writer()
+                .withRootValueSeparator("\n")
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .writeValues(outputStream);
+    }
+
+    @Override
+    public void accept(final Object value) {
+        try {
+            sequenceWriter.write(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        sequenceWriter.close();
+    }
+}
@@ -0,0 +1,197 @@
+package com.interview.reece.addressbook.controller;
+
+import com.interview.reece.addressbook.cache.AddressBookList;
+import com.interview.reece.addressbook.dto.AddressBookDTO;
+import com.interview.reece.addressbook.dto.BulkDeleteResult;
+import com.interview.reece.addressbook.dto.CustomerDTO;
+import com.interview.reece.addressbook.dto.CustomerImportResult;
+import com.interview.reece.addressbook.dto.CustomerPageResult;
+import com.interview.reece.addressbook.dto.ExportFormat;
+import com.interview.reece.addressbook.dto.PhoneNumberOwnerDTO;
+import com.interview.reece.addressbook.dto.SnapshotResult;
+import com.interview.reece.addressbook.dto.UniqueCustomerStrategy;
+import com.interview.reece.addressbook.dto.request.AddressBookRequestDTO;
+import com.interview.reece.addressbook.dto.request.CustomerPatchRequestDTO;
+import com.interview.reece.addressbook.dto.request.CustomerRequestDTO;
+import com.interview.reece.addressbook.exception.AddressBookNotFoundException;
+import com.interview.reece.addressbook.repository.ReactiveCustomerRepository;
+import com.interview.reece.addressbook.service.AddressBookExportService;
+import com.interview.reece.addressbook.service.AddressBookService;
+import com.interview.reece.addressbook.service.BulkDeleteService;
+import com.interview.reece.addressbook.service.CustomerImportService;
+import com.interview.reece.addressbook.service.DatabaseSnapshotService;
+import jakarta.validation.Valid;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * The {@link AddressBookController} API for the reactive profile. Customer listings stream from R2DBC with
+ * backpressure, every other call runs the blocking service on the bounded elastic scheduler so that the event loop
+ * never waits on JDBC.
+ */
+@RestController
+@Profile("reactive")
+@RequestMapping("/address-book")
+public class ReactiveAddressBookController {
+
+    private AddressBookService addressBookService;
+    private CustomerImportService customerImportService;
+    private AddressBookExportService addressBookExportService;
+    private BulkDeleteService bulkDeleteService;
+    private DatabaseSnapshotService databaseSnapshotService;
+    private ReactiveCustomerRepository reactiveCustomerRepository;
+
+    public ReactiveAddressBookController(AddressBookService addressBookService, CustomerImportService customerImportService,
+                                         AddressBookExportService addressBookExportService, BulkDeleteService bulkDeleteService,
+                                         DatabaseSnapshotService databaseSnapshotService, ReactiveCustomerRepository reactiveCustomerRepository) {
+        this.addressBookService = addressBookService;
+        this.customerImportService = customerImportService;
+        this.addressBookExportService = addressBookExportService;
+        this.bulkDeleteService = bulkDeleteService;
+        this.databaseSnapshotService = databaseSnapshotService;
+        this.reactiveCustomerRepository = reactiveCustomerRepository;
+    }
+
+    @GetMapping("/books")
+    public Mono<List<AddressBookDTO>> getAddressBooks(final ServerWebExchange exchange) {
+        return blocking(addressBookService::getAddressBookList)
+                .filter(addressBooks -> !exchange.checkNotModified(addressBooks.eTag()))
+                .map(AddressBookList::addressBooks);
+    }
+
+    @PostMapping("/books")
+    public Mono<ResponseEntity<AddressBookDTO>> createAddressBook(@Valid @RequestBody final AddressBookRequestDTO requestDTO) {
+        return blocking(() -> addressBookService.createAddressBook(requestDTO)).map(this::created);
+    }
+
+    @DeleteMapping("/books/{bookId}")
+    public Mono<BulkDeleteResult> removeAddressBook(@PathVariable final Long bookId) {
+        return blocking(() -> bulkDeleteService.removeAddressBook(bookId));
+    }
+
+    @GetMapping("/books/{bookId}/customers")
+    public Flux<CustomerDTO> getCustomer(@PathVariable final Long bookId) {
+        return reactiveCustomerRepository.existsAddressBook(bookId)
+                .flatMapMany(exists -> exists
+                        ? reactiveCustomerRepository.findByAddressBookId(bookId)
+                        : Flux.error(new AddressBookNotFoundException("No address book found for [%d]".formatted(bookId))));
+    }
+
+    @GetMapping(value = "/books/{bookId}/customers", params = "pageSize")
+    public Mono<CustomerPageResult> getCustomerPage(@PathVariable final Long bookId, @RequestParam(defaultValue = "0") final int page, @RequestParam final int pageSize,
+                                                    @RequestParam(required = false) final String after) {
+        if (after != null) {
+            return blocking(() -> addressBookService.getCustomersByAddressBookIdAfter(bookId, after, pageSize));
+        }
+        return blocking(() -> addressBookService.getCustomersByAddressBookId(bookId, page, pageSize));
+    }
+
+    @GetMapping(value = "/books/{bookId}/customers/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<CustomerDTO> streamCustomers(@PathVariable final Long bookId) {
+        return getCustomer(bookId);
+    }
+
+    @PostMapping("/books/{bookId}/customers")
+    public Mono<ResponseEntity<CustomerDTO>> createCustomer(@PathVariable final Long bookId, @RequestBody @Valid final CustomerRequestDTO customerRequest,
+                                                            @RequestParam(defaultValue = "false") final boolean wait) {
+        return blocking(() -> addressBookService.createCustomer(bookId, customerRequest, wait))
+                .map(customer -> !wait && addressBookService.isWriteBehindEnabled() ? ResponseEntity.accepted().body(customer) : created(customer));
+    }
+
+    @PostMapping(value = "/books/{bookId}/customers:bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Mono<CustomerImportResult> importCustomers(@PathVariable final Long bookId, @RequestBody final Flux<CustomerRequestDTO> customers) {
+        // the import pulls the customers as it persists them, so the body is read no faster than it is stored
+        return blocking(() -> customerImportService.importCustomers(bookId, customers.toIterable().iterator()));
+    }
+
+    @GetMapping("/export")
+    public Mono<Void> export(@RequestParam(defaultValue = "CSV") final ExportFormat format, @RequestParam(defaultValue = "false") final boolean gzip,
+                             final ServerHttpResponse response) {
+        response.getHeaders().setContentType(format.mediaType(gzip));
+        response.getHeaders().setContentDisposition(ContentDisposition.attachment().filename(format.fileName(gzip)).build());
+        // the blocking export writes on a bounded elastic thread, buffers are only produced as fast as the client reads them
+        final Scheduler scheduler = Schedulers.boundedElastic();
+        return response.writeWith(DataBufferUtils.outputStreamPublisher(outputStream -> {
+            try {
+                addressBookExportService.export(format, gzip, outputStream);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, response.bufferFactory(), scheduler::schedule));
+    }
+
+    @PostMapping("/snapshot")
+    public Mono<SnapshotResult> writeSnapshot() {
+        return blocking(databaseSnapshotService::writeSnapshot);
+    }
+
+    @PutMapping("/customers/{customerId}")
+    public Mono<CustomerDTO> updateCustomer(@PathVariable final Long customerId, @RequestBody @Valid final CustomerRequestDTO customerRequest) {
+        return blocking(() -> addressBookService.updateCustomer(customerId, customerRequest));
+    }
+
+    @PatchMapping("/customers/{customerId}")
+    public Mono<CustomerDTO> patchCustomer(@PathVariable final Long customerId, @RequestBody @Valid final CustomerPatchRequestDTO patchRequest) {
+        return blocking(() -> addressBookService.patchCustomer(customerId, patchRequest));
+    }
+
+    @DeleteMapping("/customers/{customerId}")
+    public Mono<Void> removeCustomer(@PathVariable final Long customerId) {
+        return Mono.<Void>fromRunnable(() -> addressBookService.removeCustomer(customerId))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @PostMapping("/customers:bulkDelete")
+    public Mono<BulkDeleteResult> removeCustomers(@RequestBody final List<Long> customerIds) {
+        return blocking(() -> bulkDeleteService.removeCustomers(customerIds));
+    }
+
+    @GetMapping("/customers")
+    public Mono<CustomerPageResult> getAllCustomers(@RequestParam(defaultValue = "0") final int page, @RequestParam(defaultValue = "20") int pageSize,
+                                                    @RequestParam(required = false) final String after, @RequestParam(defaultValue = "true") final boolean includeTotals,
+                                                    @RequestParam(defaultValue = "NAME") final UniqueCustomerStrategy strategy) {
+        if (after != null) {
+            return blocking(() -> addressBookService.getAllUniqueCustomersAfter(after, pageSize, strategy));
+        }
+        return blocking(() -> addressBookService.getAllUniqueCustomers(page, pageSize, includeTotals, strategy));
+    }
+
+    @GetMapping("/customers/stream")
+    public Flux<CustomerDTO> streamAllCustomers() {
+        return reactiveCustomerRepository.findDistinctName();
+    }
+
+    @GetMapping("/customers/search")
+    public Mono<List<CustomerDTO>> searchCustomers(@RequestParam final String q, @RequestParam(defaultValue = "20") final int limit) {
+        return blocking(() -> addressBookService.searchCustomers(q, limit));
+    }
+
+    @GetMapping("/phone-numbers/{phoneNumber}")
+    public Mono<List<PhoneNumberOwnerDTO>> getPhoneNumberOwners(@PathVariable final String phoneNumber) {
+        return blocking(() -> addressBookService.getPhoneNumberOwners(phoneNumber));
+    }
+
+    protected <T> ResponseEntity<T> created(final T body) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(body);
+    }
+
+    private static <T> Mono<T> blocking(final Callable<T> call) {
+        return Mono.fromCallable(call).subscribeOn(Schedulers.boundedElastic());
+    }
+}
@@ -0,0 +1,24 @@
+package com.interview.reece.addressbook.dto;
+
+public class BulkDeleteResult {
+
+    /**
+     * number of customers deleted
+     */
+    private long deleted;
+
+    public BulkDeleteResult() {
+    }
+
+    public BulkDeleteResult(long deleted) {
+        this.deleted = deleted;
+    }
+
+    public long getDeleted() {
+        return deleted;
+    }
+
+    public void setDeleted(long deleted) {
+        this.deleted = deleted;
+    }
+}
@@ -0,0 +1,37 @@
+package com.interview.reece.addressbook.dto;
+
+import java.util.List;
+
+public class CustomerImportError {
+
+    /**
+     * zero based position of the customer in the imported content
+     */
+    private long index;
+
+    private List<String> errors;
+
+    public CustomerImportError() {
+    }
+
+    public CustomerImportError(long index, List<String> errors) {
+        this.index = index;
+        this.errors = errors;
+    }
+
+    public long getIndex() {
+        return index;
+    }
+
+    public void setIndex(long index) {
+        this.index = index;
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<String> errors) {
+        this.errors = errors;
+    }
+}
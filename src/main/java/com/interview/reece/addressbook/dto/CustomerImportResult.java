@@ -0,0 +1,41 @@
+package com.interview.reece.addressbook.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class CustomerImportResult {
+
+    /**
+     * number of customers created
+     */
+    private long imported;
+
+    /**
+     * customers that were not created, with the reasons
+     */
+    private List<CustomerImportError> failures = new ArrayList<>();
+
+    public long getImported() {
+        return imported;
+    }
+
+    public void setImported(long imported) {
+        this.imported = imported;
+    }
+
+    public List<CustomerImportError> getFailures() {
+        return failures;
+    }
+
+    public void setFailures(List<CustomerImportError> failures) {
+        this.failures = failures;
+    }
+
+    public void addImported(final long count) {
+        this.imported += count;
+    }
+
+    public void addFailure(final long index, final List<String> errors) {
+        this.failures.add(new CustomerImportError(index, errors));
+    }
+}
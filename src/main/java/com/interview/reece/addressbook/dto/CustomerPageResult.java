@@ -1,9 +1,14 @@
 package com.interview.reece.addressbook.dto;
 
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 
 public class CustomerPageResult extends PagedResult<CustomerDTO> {
 
+    /**
+     * Cursor to request the page after this one, null when this is the last page
+     */
+    private String nextCursor;
+
     public CustomerPageResult() {
         super(0, 0);
     }
@@ -12,7 +17,15 @@ public class CustomerPageResult extends PagedResult<CustomerDTO> {
         super(page, pageSize);
     }
 
-    public CustomerPageResult(int page, int pageSize, Page pageResult) {
+    public CustomerPageResult(int page, int pageSize, Slice pageResult) {
         super(page, pageSize, pageResult);
     }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
 }
@@ -0,0 +1,46 @@
+package com.interview.reece.addressbook.dto;
+
+import org.springframework.http.MediaType;
+
+/**
+ * Formats of the address book export
+ */
+public enum ExportFormat {
+
+    /**
+     * One line per phone number, with a header line
+     */
+    CSV(new MediaType("text", "csv"), "csv"),
+
+    /**
+     * One JSON object per customer with its phone numbers
+     */
+    NDJSON(MediaType.APPLICATION_NDJSON, "ndjson");
+
+    private static final MediaType GZIP = new MediaType("application", "gzip");
+
+    private final MediaType mediaType;
+
+    private final String extension;
+
+    ExportFormat(MediaType mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    /**
+     * @param gzip whether the export is compressed
+     * @return the content type of the export
+     */
+    public MediaType mediaType(final boolean gzip) {
+        return gzip ? GZIP : mediaType;
+    }
+
+    /**
+     * @param gzip whether the export is compressed
+     * @return the name of the downloaded file
+     */
+    public String fileName(final boolean gzip) {
+        return "address-books." + extension + (gzip ? ".gz" : "");
+    }
+}
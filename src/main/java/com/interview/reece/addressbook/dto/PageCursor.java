@@ -0,0 +1,71 @@
+package com.interview.reece.addressbook.dto;
+
+import com.interview.reece.addressbook.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Encodes and decodes the opaque cursors handed out to clients for keyset paging.
+ * The cursor carries the sort key of the last entry of the previous page.
+ */
+public final class PageCursor {
+
+    private PageCursor() {
+    }
+
+    /**
+     * Encodes the sort key of the last entry of a page
+     *
+     * @param key the sort key
+     * @return opaque cursor
+     */
+    public static String encode(final String key) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor back to the sort key. A blank cursor means the first page.
+     *
+     * @param cursor the cursor received from the client
+     * @return the sort key to seek after, empty for the first page
+     */
+    public static String decode(final String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return "";
+        }
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Invalid cursor [%s]".formatted(cursor));
+        }
+    }
+
+    /**
+     * Encodes the id of the last entry of a page
+     *
+     * @param id the id
+     * @return opaque cursor
+     */
+    public static String encode(final long id) {
+        return encode(Long.toString(id));
+    }
+
+    /**
+     * Decodes a cursor created by {@link #encode(long)}. A blank cursor means the first page.
+     *
+     * @param cursor the cursor received from the client
+     * @return the id to seek after, {@link Long#MIN_VALUE} for the first page
+     */
+    public static long decodeId(final String cursor) {
+        final String key = decode(cursor);
+        if (key.isEmpty()) {
+            return Long.MIN_VALUE;
+        }
+        try {
+            return Long.parseLong(key);
+        } catch (NumberFormatException e) {
+            throw new InvalidCursorException("Invalid cursor [%s]".formatted(cursor));
+        }
+    }
+}
@@ -1,11 +1,17 @@
 package com.interview.reece.addressbook.dto;
 
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 
 import java.util.List;
 
 public abstract class PagedResult<T> {
 
+    /**
+     * Value of the totals when they were not computed for the page
+     */
+    public static final int UNKNOWN_TOTAL = -1;
+
     /**
      * The page number
      */
@@ -17,12 +23,12 @@ public abstract class PagedResult<T> {
     private int currentPageSize;
 
     /**
-     * total count of the entire result without paging
+     * total count of the entire result without paging, or {@link #UNKNOWN_TOTAL} when not computed
      */
     private long totalSize;
 
     /**
-     * The number of pages
+     * The number of pages, or {@link #UNKNOWN_TOTAL} when not computed
      */
     private int totalPages;
 
@@ -31,6 +37,11 @@ public abstract class PagedResult<T> {
      */
     private int requestedPageSize;
 
+    /**
+     * whether there is a page after this one
+     */
+    private boolean hasNext;
+
     /**
      * The result
      */
@@ -41,16 +52,28 @@ public abstract class PagedResult<T> {
         this.requestedPageSize = pageSize;
     }
 
-    public PagedResult(final int page, final int pageSize, final Page pageResult){
+    public PagedResult(final int page, final int pageSize, final Slice pageResult){
         this.page = page;
         this.requestedPageSize = pageSize;
         init(pageResult);
     }
 
-    public void init(final Page page){
-        setTotalPages(page.getTotalPages());
-        setTotalSize(page.getTotalElements());
-        setCurrentPageSize(page.getNumberOfElements());
+    /**
+     * Initialises the sizes from the query result. Totals are only known when the result is a {@link Page},
+     * otherwise they are set to {@link #UNKNOWN_TOTAL}.
+     *
+     * @param slice the query result
+     */
+    public void init(final Slice slice){
+        if (slice instanceof Page page) {
+            setTotalPages(page.getTotalPages());
+            setTotalSize(page.getTotalElements());
+        } else {
+            setTotalPages(UNKNOWN_TOTAL);
+            setTotalSize(UNKNOWN_TOTAL);
+        }
+        setCurrentPageSize(slice.getNumberOfElements());
+        setHasNext(slice.hasNext());
     }
 
     public int getPage() {
@@ -101,4 +124,12 @@ public abstract class PagedResult<T> {
     public void setRequestedPageSize(int requestedPageSize) {
         this.requestedPageSize = requestedPageSize;
     }
+
+    public boolean isHasNext() {
+        return hasNext;
+    }
+
+    public void setHasNext(boolean hasNext) {
+        this.hasNext = hasNext;
+    }
 }
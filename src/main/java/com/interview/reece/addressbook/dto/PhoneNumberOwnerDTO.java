@@ -0,0 +1,35 @@
+package com.interview.reece.addressbook.dto;
+
+import java.util.Set;
+
+public class PhoneNumberOwnerDTO extends CustomerDTO {
+
+    private long addressBookId;
+
+    private String addressBookTitle;
+
+    public PhoneNumberOwnerDTO() {
+    }
+
+    public PhoneNumberOwnerDTO(long id, String name, Set<String> phoneNumbers, long addressBookId, String addressBookTitle) {
+        super(id, name, phoneNumbers);
+        this.addressBookId = addressBookId;
+        this.addressBookTitle = addressBookTitle;
+    }
+
+    public long getAddressBookId() {
+        return addressBookId;
+    }
+
+    public void setAddressBookId(long addressBookId) {
+        this.addressBookId = addressBookId;
+    }
+
+    public String getAddressBookTitle() {
+        return addressBookTitle;
+    }
+
+    public void setAddressBookTitle(String addressBookTitle) {
+        this.addressBookTitle = addressBookTitle;
+    }
+}
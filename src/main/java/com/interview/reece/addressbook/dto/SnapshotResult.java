@@ -0,0 +1,68 @@
+package com.interview.reece.addressbook.dto;
+
+public class SnapshotResult {
+
+    private String file;
+
+    private long addressBooks;
+
+    private long customers;
+
+    private long phoneNumbers;
+
+    /**
+     * time taken in milliseconds
+     */
+    private long durationMillis;
+
+    public SnapshotResult() {
+    }
+
+    public SnapshotResult(String file, long addressBooks, long customers, long phoneNumbers, long durationMillis) {
+        this.file = file;
+        this.addressBooks = addressBooks;
+        this.customers = customers;
+        this.phoneNumbers = phoneNumbers;
+        this.durationMillis = durationMillis;
+    }
+
+    public String getFile() {
+        return file;
+    }
+
+    public void setFile(String file) {
+        this.file = file;
+    }
+
+    public long getAddressBooks() {
+        return addressBooks;
+    }
+
+    public void setAddressBooks(long addressBooks) {
+        this.addressBooks = addressBooks;
+    }
+
+    public long getCustomers() {
+        return customers;
+    }
+
+    public void setCustomers(long customers) {
+        this.customers = customers;
+    }
+
+    public long getPhoneNumbers() {
+        return phoneNumbers;
+    }
+
+    public void setPhoneNumbers(long phoneNumbers) {
+        this.phoneNumbers = phoneNumbers;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    public void setDurationMillis(long durationMillis) {
+        this.durationMillis = durationMillis;
+    }
+}
@@ -0,0 +1,18 @@
+package com.interview.reece.addressbook.dto;
+
+/**
+ * How customers of different address books are found to be the same person in the unique customer listing.
+ */
+public enum UniqueCustomerStrategy {
+
+    /**
+     * Customers with the same name are the same person
+     */
+    NAME,
+
+    /**
+     * Customers with the same name once normalized are the same person when they share a phone number, directly or
+     * through other customers with that name
+     */
+    NAME_AND_PHONE
+}
@@ -0,0 +1,46 @@
+package com.interview.reece.addressbook.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+
+import java.util.Set;
+
+/**
+ * Partial update of a customer, fields left null are not changed
+ */
+public class CustomerPatchRequestDTO {
+
+    @Pattern(regexp = ".*\\S.*", flags = Pattern.Flag.DOTALL, message = "name cannot be blank.")
+    @Size(min = 1, max = 50, message = "name must have length between 1 to 50")
+    private String name;
+
+    /**
+     * the new phone numbers of the customer, replacing the current ones
+     */
+    private Set<@NotEmpty String> phoneNumbers;
+
+    public CustomerPatchRequestDTO() {
+    }
+
+    public CustomerPatchRequestDTO(String name, Set<@NotEmpty String> phoneNumbers) {
+        this.name = name;
+        this.phoneNumbers = phoneNumbers;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Set<String> getPhoneNumbers() {
+        return phoneNumbers;
+    }
+
+    public void setPhoneNumbers(Set<String> phoneNumbers) {
+        this.phoneNumbers = phoneNumbers;
+    }
+}
@@ -0,0 +1,7 @@
+package com.interview.reece.addressbook.exception;
+
+public class IndexNotReadyException extends AddressBookRuntimeException {
+    public IndexNotReadyException(String message) {
+        super(message);
+    }
+}
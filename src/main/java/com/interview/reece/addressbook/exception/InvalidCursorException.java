@@ -0,0 +1,7 @@
+package com.interview.reece.addressbook.exception;
+
+public class InvalidCursorException extends AddressBookRuntimeException {
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.interview.reece.addressbook.exception;
+
+public class InvalidPageSizeException extends AddressBookRuntimeException {
+    public InvalidPageSizeException(String message) {
+        super(message);
+    }
+}
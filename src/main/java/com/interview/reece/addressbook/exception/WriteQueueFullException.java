@@ -0,0 +1,7 @@
+package com.interview.reece.addressbook.exception;
+
+public class WriteQueueFullException extends AddressBookRuntimeException {
+    public WriteQueueFullException(String message) {
+        super(message);
+    }
+}
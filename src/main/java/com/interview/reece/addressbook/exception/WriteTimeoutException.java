@@ -0,0 +1,20 @@
+package com.interview.reece.addressbook.exception;
+
+import com.interview.reece.addressbook.dto.CustomerDTO;
+
+/**
+ * Thrown when a queued customer is not committed within the commit timeout. The customer stays queued and is still
+ * written, so it carries the customer with its reserved id to answer as accepted instead of failed.
+ */
+public class WriteTimeoutException extends AddressBookRuntimeException {
+    private final transient CustomerDTO customer;
+
+    public WriteTimeoutException(String message, CustomerDTO customer) {
+        super(message);
+        this.customer = customer;
+    }
+
+    public CustomerDTO getCustomer() {
+        return customer;
+    }
+}
@@ -0,0 +1,39 @@
+package com.interview.reece.addressbook.index;
+
+import com.interview.reece.addressbook.aggregate.CustomerSnapshot;
+
+/**
+ * An in-memory view over the customers kept in sync by {@link CustomerIndexMaintainer}.
+ * Mutations are serialized by the maintainer, reads may happen concurrently.
+ */
+public interface CustomerIndex {
+
+    /**
+     * Adds a committed customer to the index
+     *
+     * @param customer the customer
+     */
+    void add(CustomerSnapshot customer);
+
+    /**
+     * Removes a previously added customer from the index
+     *
+     * @param customer the customer as it was added
+     */
+    void remove(CustomerSnapshot customer);
+
+    /**
+     * Drops every entry. The index is not ready until {@link #markReady()} is called.
+     */
+    void clear();
+
+    /**
+     * Marks the index as fully loaded
+     */
+    void markReady();
+
+    /**
+     * @return true when the index holds every committed customer and can serve reads
+     */
+    boolean isReady();
+}
@@ -0,0 +1,236 @@
+package com.interview.reece.addressbook.index;
+
+import com.interview.reece.addressbook.aggregate.CustomerPhoneNumber;
+import com.interview.reece.addressbook.aggregate.CustomerSnapshot;
+import com.interview.reece.addressbook.model.Customer;
+import com.interview.reece.addressbook.repository.CustomerRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Keeps every {@link CustomerIndex} in sync with the committed customers. The indexes are loaded from the database
+ * once the application is ready and then follow customer inserts and deletes through Hibernate post-commit events,
+ * so writes made through any repository are seen and rolled back writes are not.
+ */
+@Component
+public class CustomerIndexMaintainer implements PostCommitInsertEventListener, PostCommitDeleteEventListener {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CustomerIndexMaintainer.class);
+
+    private final Map<Long, CustomerSnapshot> customers = new HashMap<>();
+
+    private final Map<Long, Set<Long>> customerIdsByAddressBook = new HashMap<>();
+
+    private final Object rebuildLock = new Object();
+
+    /**
+     * changes made while a rebuild streams the table, null when no rebuild runs
+     */
+    private List<Consumer<Map<Long, CustomerSnapshot>>> pendingChanges;
+
+    private final List<CustomerIndex> indexes;
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    private final CustomerRepository customerRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public CustomerIndexMaintainer(List<CustomerIndex> indexes, EntityManagerFactory entityManagerFactory,
+                                   CustomerRepository customerRepository, PlatformTransactionManager transactionManager) {
+        this.indexes = indexes;
+        this.entityManagerFactory = entityManagerFactory;
+        this.customerRepository = customerRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        // refresh runs after another transaction committed, while its resources may still be bound
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @PostConstruct
+    void registerListeners() {
+        final EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    /**
+     * Reloads every index from the database. The table is streamed without holding the lock, so writes go on meanwhile;
+     * the changes they make are recorded and replayed over the loaded customers before the indexes are swapped to
+     * them, and only that swap holds the lock.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            final long start = System.currentTimeMillis();
+            final int indexed;
+            synchronized (this) {
+                pendingChanges = new ArrayList<>();
+            }
+            try {
+                final Map<Long, CustomerSnapshot> loaded = new HashMap<>();
+                transactionTemplate.executeWithoutResult(status -> {
+                    try (Stream<CustomerPhoneNumber> rows = customerRepository.streamAllWithPhoneNumbers()) {
+                        CustomerSnapshot.group(rows, customer -> loaded.put(customer.getPk(), customer));
+                    }
+                });
+                indexed = swap(loaded);
+            } finally {
+                synchronized (this) {
+                    pendingChanges = null;
+                }
+            }
+            LOGGER.info("Indexed {} customers in {} ms", indexed, System.currentTimeMillis() - start);
+        }
+    }
+
+    private synchronized int swap(final Map<Long, CustomerSnapshot> loaded) {
+        // the stream may or may not have seen these changes, replaying them in commit order gives the latest state
+        pendingChanges.forEach(change -> change.accept(loaded));
+        indexes.forEach(CustomerIndex::clear);
+        customers.clear();
+        customerIdsByAddressBook.clear();
+        loaded.values().forEach(this::put);
+        indexes.forEach(CustomerIndex::markReady);
+        return loaded.size();
+    }
+
+    /**
+     * Adds or replaces a customer in every index
+     *
+     * @param customer the committed customer
+     */
+    public synchronized void add(final CustomerSnapshot customer) {
+        record(loaded -> loaded.put(customer.getPk(), customer));
+        put(customer);
+    }
+
+    /**
+     * Reads the committed customer again and puts it in every index, or removes it when it no longer exists. Reading
+     * under the lock orders the refreshes of concurrent updates by what they read rather than by when their callbacks
+     * run, so a late callback never brings back an older version or a deleted customer.
+     *
+     * @param customerId the id of the changed customer
+     */
+    public synchronized void refresh(final long customerId) {
+        final List<CustomerSnapshot> current = new ArrayList<>(1);
+        transactionTemplate.executeWithoutResult(status ->
+                CustomerSnapshot.group(customerRepository.findPhoneNumbersByPkIn(List.of(customerId)).stream(), current::add));
+        if (current.isEmpty()) {
+            remove(customerId);
+        } else {
+            add(current.get(0));
+        }
+    }
+
+    /**
+     * Removes a customer from every index
+     *
+     * @param customerId the id of the deleted customer
+     */
+    public synchronized void remove(final long customerId) {
+        record(loaded -> loaded.remove(customerId));
+        delete(customerId);
+    }
+
+    /**
+     * Removes every customer of the address book from every index, for address books deleted without loading their
+     * customers
+     *
+     * @param addressBookId the id of the deleted address book
+     */
+    public synchronized void removeAddressBook(final long addressBookId) {
+        record(loaded -> loaded.values().removeIf(customer -> customer.getAddressBookId() == addressBookId));
+        final Set<Long> customerIds = customerIdsByAddressBook.remove(addressBookId);
+        if (customerIds != null) {
+            customerIds.forEach(this::delete);
+        }
+    }
+
+    private void record(final Consumer<Map<Long, CustomerSnapshot>> change) {
+        if (pendingChanges != null) {
+            pendingChanges.add(change);
+        }
+    }
+
+    private void put(final CustomerSnapshot customer) {
+        final CustomerSnapshot previous = customers.put(customer.getPk(), customer);
+        if (previous != null) {
+            indexes.forEach(index -> index.remove(previous));
+            removeFromAddressBook(previous);
+        }
+        customerIdsByAddressBook.computeIfAbsent(customer.getAddressBookId(), addressBookId -> new HashSet<>()).add(customer.getPk());
+        indexes.forEach(index -> index.add(customer));
+    }
+
+    private void delete(final long customerId) {
+        final CustomerSnapshot previous = customers.remove(customerId);
+        if (previous != null) {
+            indexes.forEach(index -> index.remove(previous));
+            removeFromAddressBook(previous);
+        }
+    }
+
+    private void removeFromAddressBook(final CustomerSnapshot customer) {
+        final Set<Long> customerIds = customerIdsByAddressBook.get(customer.getAddressBookId());
+        if (customerIds != null && customerIds.remove(customer.getPk()) && customerIds.isEmpty()) {
+            customerIdsByAddressBook.remove(customer.getAddressBookId());
+        }
+    }
+
+    @Override
+    public void onPostInsert(final PostInsertEvent event) {
+        if (event.getEntity() instanceof Customer customer) {
+            add(new CustomerSnapshot(customer.getPk(), customer.getName(), customer.getAddressBook().getPk(), customer.getPhoneNumbers()));
+        }
+    }
+
+    @Override
+    public void onPostDelete(final PostDeleteEvent event) {
+        if (event.getEntity() instanceof Customer) {
+            remove((Long) event.getId());
+        }
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(final PostInsertEvent event) {
+        // nothing was added before the commit
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(final PostDeleteEvent event) {
+        // nothing was removed before the commit
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(final EntityPersister persister) {
+        return Customer.class.equals(persister.getMappedClass());
+    }
+}
@@ -0,0 +1,122 @@
+package com.interview.reece.addressbook.index;
+
+import com.interview.reece.addressbook.aggregate.CustomerSnapshot;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Finds customers by name prefix and by phone number without touching the database. Names are kept lower cased in a
+ * sorted map, so a prefix is a range read, and phone numbers are hashed in their {@link PhoneNumbers#normalize}d form.
+ * The customer ids per key are copied on write, which is cheap because almost every key belongs to one customer.
+ */
+@Component
+public class CustomerSearchIndex implements CustomerIndex {
+
+    private final Map<Long, CustomerSnapshot> customers = new ConcurrentHashMap<>();
+
+    private final ConcurrentSkipListMap<String, long[]> customersByName = new ConcurrentSkipListMap<>();
+
+    private final Map<String, long[]> customersByPhoneNumber = new ConcurrentHashMap<>();
+
+    private volatile boolean ready;
+
+    @Override
+    public void add(final CustomerSnapshot customer) {
+        customers.put(customer.getPk(), customer);
+        final String name = normalizeName(customer.getName());
+        customersByName.put(name, append(customersByName.get(name), customer.getPk()));
+        for (final String phoneNumber : customer.getPhoneNumbers()) {
+            final String key = PhoneNumbers.normalize(phoneNumber);
+            customersByPhoneNumber.put(key, append(customersByPhoneNumber.get(key), customer.getPk()));
+        }
+    }
+
+    @Override
+    public void remove(final CustomerSnapshot customer) {
+        customers.remove(customer.getPk());
+        customersByName.computeIfPresent(normalizeName(customer.getName()), (name, ids) -> without(ids, customer.getPk()));
+        for (final String phoneNumber : customer.getPhoneNumbers()) {
+            customersByPhoneNumber.computeIfPresent(PhoneNumbers.normalize(phoneNumber), (key, ids) -> without(ids, customer.getPk()));
+        }
+    }
+
+    @Override
+    public void clear() {
+        ready = false;
+        customers.clear();
+        customersByName.clear();
+        customersByPhoneNumber.clear();
+    }
+
+    @Override
+    public void markReady() {
+        ready = true;
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Returns the customers owning the phone number followed by the customers whose name starts with the query,
+     * ignoring case, ordered by name
+     *
+     * @param query the phone number or the start of the name
+     * @param limit the maximum number of customers to return
+     * @return the matching customers, each once
+     */
+    public List<CustomerSnapshot> search(final String query, final int limit) {
+        final Map<Long, CustomerSnapshot> found = new LinkedHashMap<>();
+        collect(customersByPhoneNumber.get(PhoneNumbers.normalize(query)), found, limit);
+
+        final String prefix = normalizeName(query);
+        for (final Map.Entry<String, long[]> entry : customersByName.tailMap(prefix).entrySet()) {
+            if (found.size() >= limit || !entry.getKey().startsWith(prefix)) {
+                break;
+            }
+            collect(entry.getValue(), found, limit);
+        }
+        return List.copyOf(found.values());
+    }
+
+    private void collect(final long[] ids, final Map<Long, CustomerSnapshot> found, final int limit) {
+        if (ids == null) {
+            return;
+        }
+        for (int i = 0; i < ids.length && found.size() < limit; i++) {
+            final CustomerSnapshot customer = customers.get(ids[i]);
+            if (customer != null) {
+                found.putIfAbsent(customer.getPk(), customer);
+            }
+        }
+    }
+
+    private static String normalizeName(final String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static long[] append(final long[] ids, final long id) {
+        if (ids == null) {
+            return new long[]{id};
+        }
+        final long[] appended = Arrays.copyOf(ids, ids.length + 1);
+        appended[ids.length] = id;
+        return appended;
+    }
+
+    /**
+     * @return the ids without the given one, or null to drop the key when none is left
+     */
+    private static long[] without(final long[] ids, final long id) {
+        final long[] remaining = Arrays.stream(ids).filter(existing -> existing != id).toArray();
+        return remaining.length == 0 ? null : remaining;
+    }
+}
@@ -0,0 +1,42 @@
+package com.interview.reece.addressbook.index;
+
+import java.text.Normalizer;
+import java.util.Locale;
+
+/**
+ * Normalizes customer names so that the same name matches however it was cased, accented or punctuated.
+ */
+public final class Names {
+
+    private Names() {
+    }
+
+    /**
+     * Lower-cases the name, strips accents, apostrophes and dots, and reduces any other run of characters that are
+     * not letters or digits to a single space. Names without any letter or digit are only trimmed and lower-cased.
+     *
+     * @param name the name as entered
+     * @return the normalized name
+     */
+    public static String normalize(final String name) {
+        final String decomposed = Normalizer.normalize(name, Normalizer.Form.NFD);
+        final StringBuilder normalized = new StringBuilder(decomposed.length());
+        boolean separator = false;
+        for (int i = 0; i < decomposed.length(); i++) {
+            final char c = decomposed.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK || c == '\'' || c == '\u2019' || c == '.') {
+                continue;
+            }
+            if (Character.isLetterOrDigit(c)) {
+                if (separator && !normalized.isEmpty()) {
+                    normalized.append(' ');
+                }
+                separator = false;
+                normalized.append(Character.toLowerCase(c));
+            } else {
+                separator = true;
+            }
+        }
+        return normalized.isEmpty() ? name.trim().toLowerCase(Locale.ROOT) : normalized.toString();
+    }
+}
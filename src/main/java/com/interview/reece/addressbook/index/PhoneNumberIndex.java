@@ -0,0 +1,211 @@
+package com.interview.reece.addressbook.index;
+
+import com.interview.reece.addressbook.aggregate.CustomerSnapshot;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Maps phone numbers to the ids of the customers owning them, for reverse lookups. Entries live in two parallel
+ * primitive arrays probed linearly, keyed by a 64-bit hash of the {@link PhoneNumbers#normalize}d number, so an entry
+ * costs two longs instead of a boxed id, a string and a map node. Distinct numbers sharing a hash are possible, so
+ * callers confirm the match on the customers they load. Readers use optimistic reads and only wait when a write
+ * happened meanwhile.
+ */
+@Component
+public class PhoneNumberIndex implements CustomerIndex {
+
+    private static final int INITIAL_CAPACITY = 1 << 10;
+
+    private static final long EMPTY = 0;
+
+    private static final long REMOVED = -1;
+
+    private static final long[] NO_CUSTOMERS = new long[0];
+
+    private final StampedLock lock = new StampedLock();
+
+    private long[] keys = new long[INITIAL_CAPACITY];
+
+    /**
+     * Customer id of each slot, {@link #EMPTY} for a slot never used and {@link #REMOVED} for a deleted entry
+     * that lookups must probe past
+     */
+    private long[] customerIds = new long[INITIAL_CAPACITY];
+
+    private int size;
+
+    private int removed;
+
+    private volatile boolean ready;
+
+    @Override
+    public void add(final CustomerSnapshot customer) {
+        final long stamp = lock.writeLock();
+        try {
+            for (final String phoneNumber : customer.getPhoneNumbers()) {
+                put(hash(PhoneNumbers.normalize(phoneNumber)), customer.getPk());
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public void remove(final CustomerSnapshot customer) {
+        final long stamp = lock.writeLock();
+        try {
+            for (final String phoneNumber : customer.getPhoneNumbers()) {
+                delete(hash(PhoneNumbers.normalize(phoneNumber)), customer.getPk());
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public void clear() {
+        ready = false;
+        final long stamp = lock.writeLock();
+        try {
+            keys = new long[INITIAL_CAPACITY];
+            customerIds = new long[INITIAL_CAPACITY];
+            size = 0;
+            removed = 0;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public void markReady() {
+        ready = true;
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Returns the ids of the customers owning the phone number, plus the owners of any number sharing its hash
+     *
+     * @param phoneNumber the phone number, in any format
+     * @return the customer ids
+     */
+    public long[] findCustomerIds(final String phoneNumber) {
+        final long key = hash(PhoneNumbers.normalize(phoneNumber));
+        long stamp = lock.tryOptimisticRead();
+        long[] found = find(key);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                found = find(key);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * @return the number of phone number entries
+     */
+    public int size() {
+        return size;
+    }
+
+    private long[] find(final long key) {
+        // an optimistic read may see the arrays of different tables while a resize is running,
+        // so bound the probe by both and let the stamp validation discard the result
+        final long[] keys = this.keys;
+        final long[] customerIds = this.customerIds;
+        final int mask = Math.min(keys.length, customerIds.length) - 1;
+        long[] found = NO_CUSTOMERS;
+        for (int slot = slot(key, mask), probes = 0; probes <= mask; slot = (slot + 1) & mask, probes++) {
+            final long customerId = customerIds[slot];
+            if (customerId == EMPTY) {
+                break;
+            }
+            if (customerId != REMOVED && keys[slot] == key) {
+                found = Arrays.copyOf(found, found.length + 1);
+                found[found.length - 1] = customerId;
+            }
+        }
+        return found;
+    }
+
+    private void put(final long key, final long customerId) {
+        if ((size + removed + 1) * 2L > keys.length) {
+            // grow when live entries fill the table, otherwise only drop the removed entries
+            resize(size * 4L > keys.length ? keys.length * 2 : keys.length);
+        }
+        final int mask = keys.length - 1;
+        int free = -1;
+        int slot = slot(key, mask);
+        for (; customerIds[slot] != EMPTY; slot = (slot + 1) & mask) {
+            if (customerIds[slot] == customerId && keys[slot] == key) {
+                // several formats of the same number on one customer
+                return;
+            }
+            if (customerIds[slot] == REMOVED && free < 0) {
+                free = slot;
+            }
+        }
+        if (free >= 0) {
+            slot = free;
+            removed--;
+        }
+        keys[slot] = key;
+        customerIds[slot] = customerId;
+        size++;
+    }
+
+    private void delete(final long key, final long customerId) {
+        final int mask = keys.length - 1;
+        for (int slot = slot(key, mask); customerIds[slot] != EMPTY; slot = (slot + 1) & mask) {
+            if (customerIds[slot] == customerId && keys[slot] == key) {
+                customerIds[slot] = REMOVED;
+                size--;
+                removed++;
+                return;
+            }
+        }
+    }
+
+    private void resize(final int capacity) {
+        final long[] oldKeys = keys;
+        final long[] oldCustomerIds = customerIds;
+        keys = new long[capacity];
+        customerIds = new long[capacity];
+        size = 0;
+        removed = 0;
+        for (int slot = 0; slot < oldKeys.length; slot++) {
+            if (oldCustomerIds[slot] != EMPTY && oldCustomerIds[slot] != REMOVED) {
+                put(oldKeys[slot], oldCustomerIds[slot]);
+            }
+        }
+    }
+
+    private static int slot(final long key, final int mask) {
+        return (int) (key ^ (key >>> 32)) & mask;
+    }
+
+    /**
+     * 64-bit FNV-1a of the characters followed by a murmur finalizer, so the low bits used for slots are well mixed
+     */
+    private static long hash(final String phoneNumber) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < phoneNumber.length(); i++) {
+            hash ^= phoneNumber.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,38 @@
+package com.interview.reece.addressbook.index;
+
+/**
+ * Normalizes phone numbers so that the same number matches however it was formatted.
+ */
+public final class PhoneNumbers {
+
+    private PhoneNumbers() {
+    }
+
+    /**
+     * Reduces a phone number to its digits, keeping a leading plus. Values holding anything other than digits,
+     * spaces, dots, dashes, parentheses and a leading plus are not phone numbers and are only trimmed.
+     *
+     * @param phoneNumber the phone number as entered
+     * @return the normalized phone number
+     */
+    public static String normalize(final String phoneNumber) {
+        final String trimmed = phoneNumber.trim();
+        // only allocated once a separator is found, numbers already normalized are returned as they are
+        StringBuilder normalized = null;
+        for (int i = 0; i < trimmed.length(); i++) {
+            final char c = trimmed.charAt(i);
+            if ((c >= '0' && c <= '9') || (c == '+' && i == 0)) {
+                if (normalized != null) {
+                    normalized.append(c);
+                }
+            } else if (c == ' ' || c == '.' || c == '-' || c == '(' || c == ')') {
+                if (normalized == null) {
+                    normalized = new StringBuilder(trimmed.length()).append(trimmed, 0, i);
+                }
+            } else {
+                return trimmed;
+            }
+        }
+        return normalized == null || normalized.isEmpty() ? trimmed : normalized.toString();
+    }
+}
@@ -0,0 +1,247 @@
+package com.interview.reece.addressbook.index;
+
+import com.interview.reece.addressbook.aggregate.CustomerSnapshot;
+import com.interview.reece.addressbook.aggregate.ResolvedCustomer;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Customers resolved into the people they most likely are. Customers whose names match once normalized are the
+ * same person when they share a phone number, directly or through other customers with that name, so unlike
+ * {@link UniqueCustomerIndex} two people with the same name and no number in common stay apart.
+ * Customers are resolved per normalized name with a union-find over their phone numbers, so a change only resolves
+ * the customers sharing its name again. While loading, names are only resolved once the index is marked ready.
+ * Every write resolves its whole name group again, costing O(group size) under the maintainer lock, so a very common
+ * name makes each write to it slower.
+ * Like the unique customer listing, only customers having phone numbers are returned.
+ */
+@Component
+public class ResolvedCustomerIndex implements CustomerIndex {
+
+    private static final String PK_PADDING = "0000000000000000000";
+
+    /**
+     * Customers by normalized name, only used by the maintainer
+     */
+    private final Map<String, NameGroup> groupsByName = new HashMap<>();
+
+    private final ConcurrentSkipListMap<String, ResolvedCustomer> customersByKey = new ConcurrentSkipListMap<>();
+
+    /**
+     * Number of keys in {@link #customersByKey}, whose size() walks the whole map
+     */
+    private final AtomicInteger count = new AtomicInteger();
+
+    private volatile boolean ready;
+
+    @Override
+    public void add(final CustomerSnapshot customer) {
+        if (customer.getPhoneNumbers().isEmpty()) {
+            return;
+        }
+        final NameGroup group = groupsByName.computeIfAbsent(Names.normalize(customer.getName()), NameGroup::new);
+        group.customers.put(customer.getPk(), customer);
+        if (ready) {
+            resolve(group);
+        }
+    }
+
+    @Override
+    public void remove(final CustomerSnapshot customer) {
+        final NameGroup group = groupsByName.get(Names.normalize(customer.getName()));
+        if (group == null || group.customers.remove(customer.getPk()) == null) {
+            return;
+        }
+        if (group.customers.isEmpty()) {
+            groupsByName.remove(group.name);
+        }
+        if (ready) {
+            resolve(group);
+        }
+    }
+
+    @Override
+    public void clear() {
+        ready = false;
+        groupsByName.clear();
+        customersByKey.clear();
+        count.set(0);
+    }
+
+    @Override
+    public void markReady() {
+        // names resolve independently of each other
+        groupsByName.values().parallelStream().forEach(this::resolve);
+        ready = true;
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Returns a page of resolved customers ordered by normalized name.
+     * Walks the map from its first entry, so the cost grows with the page number; deep pages should be read with
+     * {@link #findAfter(String, int)}, which seeks straight to the previous page's last key.
+     *
+     * @param pageable the page to return, the sort is always by normalized name
+     * @return page of customers
+     */
+    public Page<ResolvedCustomer> findAll(final Pageable pageable) {
+        final List<ResolvedCustomer> customers = customersByKey.values().stream()
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .toList();
+        return new PageImpl<>(customers, pageable, count());
+    }
+
+    /**
+     * Returns a page of resolved customers ordered by normalized name, without the total count.
+     * Walks the map from its first entry, so the cost grows with the page number; deep pages should be read with
+     * {@link #findAfter(String, int)}, which seeks straight to the previous page's last key.
+     *
+     * @param pageable the page to return, the sort is always by normalized name
+     * @return slice of customers
+     */
+    public Slice<ResolvedCustomer> findSlice(final Pageable pageable) {
+        final List<ResolvedCustomer> customers = customersByKey.values().stream()
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize() + 1L)
+                .toList();
+        final boolean hasNext = customers.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? customers.subList(0, pageable.getPageSize()) : customers, pageable, hasNext);
+    }
+
+    /**
+     * Returns resolved customers whose key sorts after the given key
+     *
+     * @param after the key of the last customer of the previous page, empty for the first page
+     * @param limit the maximum number of customers to return
+     * @return list of customers ordered by normalized name
+     */
+    public List<ResolvedCustomer> findAfter(final String after, final int limit) {
+        return customersByKey.tailMap(after, false).values().stream()
+                .limit(limit)
+                .toList();
+    }
+
+    /**
+     * @return the number of resolved customers
+     */
+    public long count() {
+        return count.get();
+    }
+
+    /**
+     * Replaces the resolved customers of a name. The new customers are put before the stale keys are removed, so a
+     * concurrent reader never misses a person whose key is unchanged.
+     */
+    private void resolve(final NameGroup group) {
+        final List<ResolvedCustomer> resolved = group.resolve();
+        final Set<String> keys = new HashSet<>(resolved.size());
+        for (final ResolvedCustomer customer : resolved) {
+            keys.add(customer.key());
+            if (customersByKey.put(customer.key(), customer) == null) {
+                count.incrementAndGet();
+            }
+        }
+        for (final ResolvedCustomer customer : group.resolved) {
+            if (!keys.contains(customer.key()) && customersByKey.remove(customer.key()) != null) {
+                count.decrementAndGet();
+            }
+        }
+        group.resolved = resolved;
+    }
+
+    /**
+     * The customers sharing a normalized name
+     */
+    private static final class NameGroup {
+
+        private final String name;
+
+        private final Map<Long, CustomerSnapshot> customers = new HashMap<>();
+
+        /**
+         * The resolved customers currently published
+         */
+        private List<ResolvedCustomer> resolved = List.of();
+
+        private NameGroup(String name) {
+            this.name = name;
+        }
+
+        /**
+         * Links the customers sharing a phone number. Components are rooted at their customer with the lowest pk,
+         * which names the resolved customer and keeps its key stable while it gains customers.
+         */
+        private List<ResolvedCustomer> resolve() {
+            final CustomerSnapshot[] members = customers.values().toArray(CustomerSnapshot[]::new);
+            Arrays.sort(members, Comparator.comparingLong(CustomerSnapshot::getPk));
+            final int[] parent = new int[members.length];
+            final Map<String, Integer> ownerByPhoneNumber = new HashMap<>();
+            for (int i = 0; i < members.length; i++) {
+                parent[i] = i;
+                for (final String phoneNumber : members[i].getPhoneNumbers()) {
+                    final Integer owner = ownerByPhoneNumber.putIfAbsent(PhoneNumbers.normalize(phoneNumber), i);
+                    if (owner != null) {
+                        union(parent, owner, i);
+                    }
+                }
+            }
+
+            final Map<Integer, Set<String>> phoneNumbersByRoot = new HashMap<>();
+            ownerByPhoneNumber.forEach((phoneNumber, owner) -> phoneNumbersByRoot.computeIfAbsent(find(parent, owner), root -> new HashSet<>()).add(phoneNumber));
+            final List<ResolvedCustomer> resolved = new ArrayList<>(phoneNumbersByRoot.size());
+            for (int i = 0; i < members.length; i++) {
+                final Set<String> phoneNumbers = phoneNumbersByRoot.get(i);
+                if (phoneNumbers != null) {
+                    resolved.add(new ResolvedCustomer(key(members[i].getPk()), members[i].getName(), Set.copyOf(phoneNumbers)));
+                }
+            }
+            return resolved;
+        }
+
+        /**
+         * Sorts by normalized name, then by the pk of the first customer
+         */
+        private String key(final long pk) {
+            final String id = Long.toString(pk);
+            return name + '\u0000' + PK_PADDING.substring(Math.min(id.length(), PK_PADDING.length())) + id;
+        }
+
+        private static int find(final int[] parent, int i) {
+            while (parent[i] != i) {
+                parent[i] = parent[parent[i]];
+                i = parent[i];
+            }
+            return i;
+        }
+
+        private static void union(final int[] parent, final int a, final int b) {
+            final int rootA = find(parent, a);
+            final int rootB = find(parent, b);
+            if (rootA < rootB) {
+                parent[rootB] = rootA;
+            } else if (rootB < rootA) {
+                parent[rootA] = rootB;
+            }
+        }
+    }
+}
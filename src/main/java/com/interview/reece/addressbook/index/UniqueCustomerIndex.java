@@ -0,0 +1,175 @@
+package com.interview.reece.addressbook.index;
+
+import com.interview.reece.addressbook.aggregate.CustomerSnapshot;
+import com.interview.reece.addressbook.aggregate.MergeCustomer;
+import com.interview.reece.addressbook.aggregate.UniqueCustomer;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Customers merged by name, maintained incrementally on every customer change so that the unique customer
+ * listing is a sorted map read instead of a grouping over the customers table.
+ * Mirrors {@link com.interview.reece.addressbook.service.UniqueCustomerMerger}, which only returns customers
+ * having phone numbers and keeps each phone number once however it was formatted.
+ */
+@Component
+public class UniqueCustomerIndex implements CustomerIndex {
+
+    private final ConcurrentSkipListMap<String, MergedCustomer> customersByName = new ConcurrentSkipListMap<>();
+
+    /**
+     * Number of names in {@link #customersByName}, whose size() walks the whole map
+     */
+    private final AtomicInteger count = new AtomicInteger();
+
+    private volatile boolean ready;
+
+    @Override
+    public void add(final CustomerSnapshot customer) {
+        if (customer.getPhoneNumbers().isEmpty()) {
+            return;
+        }
+        final MergedCustomer mergedCustomer = customersByName.get(customer.getName());
+        if (mergedCustomer != null) {
+            mergedCustomer.add(customer.getPhoneNumbers());
+            return;
+        }
+        final MergedCustomer newCustomer = new MergedCustomer(customer.getName());
+        newCustomer.add(customer.getPhoneNumbers());
+        customersByName.put(customer.getName(), newCustomer);
+        count.incrementAndGet();
+    }
+
+    @Override
+    public void remove(final CustomerSnapshot customer) {
+        final MergedCustomer mergedCustomer = customersByName.get(customer.getName());
+        if (mergedCustomer == null || customer.getPhoneNumbers().isEmpty()) {
+            return;
+        }
+        if (mergedCustomer.remove(customer.getPhoneNumbers())) {
+            customersByName.remove(customer.getName());
+            count.decrementAndGet();
+        }
+    }
+
+    @Override
+    public void clear() {
+        ready = false;
+        customersByName.clear();
+        count.set(0);
+    }
+
+    @Override
+    public void markReady() {
+        ready = true;
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Returns a page of unique customers ordered by name.
+     * Walks the map from its first entry, so the cost grows with the page number; deep pages should be read with
+     * {@link #findAfter(String, int)}, which seeks straight to the previous page's last key.
+     *
+     * @param pageable the page to return, the sort is always by name
+     * @return page of customers
+     */
+    public Page<MergeCustomer> findAll(final Pageable pageable) {
+        final List<MergeCustomer> customers = customersByName.values().stream()
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .map(MergedCustomer::snapshot)
+                .toList();
+        return new PageImpl<>(customers, pageable, count());
+    }
+
+    /**
+     * Returns a page of unique customers ordered by name, without the total count.
+     * Walks the map from its first entry, so the cost grows with the page number; deep pages should be read with
+     * {@link #findAfter(String, int)}, which seeks straight to the previous page's last key.
+     *
+     * @param pageable the page to return, the sort is always by name
+     * @return slice of customers
+     */
+    public Slice<MergeCustomer> findSlice(final Pageable pageable) {
+        final List<MergeCustomer> customers = customersByName.values().stream()
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize() + 1L)
+                .map(MergedCustomer::snapshot)
+                .toList();
+        final boolean hasNext = customers.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? customers.subList(0, pageable.getPageSize()) : customers, pageable, hasNext);
+    }
+
+    /**
+     * @return the number of unique customers
+     */
+    public long count() {
+        return count.get();
+    }
+
+    /**
+     * Returns unique customers whose name sorts after the given name
+     *
+     * @param after the last name of the previous page, empty for the first page
+     * @param limit the maximum number of customers to return
+     * @return list of customers ordered by name
+     */
+    public List<MergeCustomer> findAfter(final String after, final int limit) {
+        final NavigableMap<String, MergedCustomer> tail = customersByName.tailMap(after, false);
+        return tail.values().stream()
+                .limit(limit)
+                .map(MergedCustomer::snapshot)
+                .toList();
+    }
+
+    /**
+     * Phone numbers of every customer sharing a name, counted so that removing one customer keeps the
+     * numbers still owned by the others.
+     */
+    private static final class MergedCustomer {
+
+        private final String name;
+
+        private final Map<String, Integer> phoneNumberCounts = new ConcurrentHashMap<>();
+
+        private int customerCount;
+
+        private MergedCustomer(String name) {
+            this.name = name;
+        }
+
+        private void add(final Set<String> phoneNumbers) {
+            customerCount++;
+            phoneNumbers.forEach(phoneNumber -> phoneNumberCounts.merge(PhoneNumbers.normalize(phoneNumber), 1, Integer::sum));
+        }
+
+        /**
+         * @return true when no customer is left with this name
+         */
+        private boolean remove(final Set<String> phoneNumbers) {
+            customerCount--;
+            phoneNumbers.forEach(phoneNumber -> phoneNumberCounts.computeIfPresent(PhoneNumbers.normalize(phoneNumber), (key, count) -> count > 1 ? count - 1 : null));
+            return customerCount <= 0;
+        }
+
+        private MergeCustomer snapshot() {
+            return new UniqueCustomer(name, Set.copyOf(phoneNumberCounts.keySet()));
+        }
+    }
+}
@@ -1,12 +1,16 @@
 package com.interview.reece.addressbook.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.Objects;
 import java.util.Set;
 
 @Entity
 @Table(name = "address_books")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class AddressBook extends BaseEntity {
 
     @Column(nullable = false)
@@ -1,6 +1,5 @@
 package com.interview.reece.addressbook.model;
 
-import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
 import jakarta.persistence.MappedSuperclass;
 
@@ -8,7 +7,7 @@ import jakarta.persistence.MappedSuperclass;
 public class BaseEntity {
 
     @Id
-    @GeneratedValue
+    @PooledSequence
     private Long pk;
 
     public Long getPk() {
@@ -1,12 +1,19 @@
 package com.interview.reece.addressbook.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.util.Set;
 
 
 @Entity
 @Table(name = "customers")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@DynamicUpdate
 public class Customer extends BaseEntity {
 
     @Column(nullable = false)
@@ -14,10 +21,12 @@ public class Customer extends BaseEntity {
 
     @ElementCollection
     @CollectionTable(name = "customer_phone_numbers")
+    @BatchSize(size = 100)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @Column(length = 50)
     private Set<String> phoneNumbers;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "address_book_id", nullable = false)
     private AddressBook addressBook;
 
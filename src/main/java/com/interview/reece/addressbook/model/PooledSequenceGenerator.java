@@ -0,0 +1,36 @@
+package com.interview.reece.addressbook.model;
+
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.config.spi.StandardConverters;
+import org.hibernate.generator.GeneratorCreationContext;
+import org.hibernate.id.PersistentIdentifierGenerator;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.id.enhanced.StandardOptimizerDescriptor;
+
+import java.util.Properties;
+
+/**
+ * Sequence generator using the pooled optimizer: one sequence call reserves a block of ids, so inserts do not
+ * wait on the sequence and can be batched. The block size comes from the {@value #ALLOCATION_SIZE_SETTING}
+ * Hibernate setting and must match the increment of the database sequences. Each entity uses its own
+ * {@code <table>_seq} sequence.
+ */
+public class PooledSequenceGenerator extends SequenceStyleGenerator {
+
+    public static final String ALLOCATION_SIZE_SETTING = "addressbook.id.allocation_size";
+
+    public static final int DEFAULT_ALLOCATION_SIZE = 50;
+
+    @Override
+    public void configure(final GeneratorCreationContext creationContext, final Properties parameters) {
+        final ConfigurationService configurationService = creationContext.getServiceRegistry().getService(ConfigurationService.class);
+        final int allocationSize = configurationService.getSetting(ALLOCATION_SIZE_SETTING, StandardConverters.INTEGER, DEFAULT_ALLOCATION_SIZE);
+        parameters.setProperty(INCREMENT_PARAM, Integer.toString(allocationSize));
+        parameters.setProperty(OPT_PARAM, StandardOptimizerDescriptor.POOLED.getExternalName());
+        final String table = parameters.getProperty(PersistentIdentifierGenerator.TABLE);
+        if (table != null) {
+            parameters.putIfAbsent(SEQUENCE_PARAM, table + "_seq");
+        }
+        super.configure(creationContext, parameters);
+    }
+}
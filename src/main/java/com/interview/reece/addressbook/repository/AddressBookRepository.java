@@ -1,10 +1,38 @@
 package com.interview.reece.addressbook.repository;
 
+import com.interview.reece.addressbook.aggregate.AddressBookSummary;
 import com.interview.reece.addressbook.model.AddressBook;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.NativeQuery;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface AddressBookRepository extends JpaRepository<AddressBook,Long> {
 
+    /**
+     * Returns every address book ordered by id, without loading the entities
+     *
+     * @return list of address books
+     */
+    @Query("SELECT b.pk as pk, b.title as title FROM AddressBook b ORDER BY b.pk")
+    List<AddressBookSummary> findAllSummaries();
+
+    /**
+     * Deletes the address book in one statement without loading it or its customers, which must be deleted first
+     *
+     * @param pk the address book id
+     * @return number of address books deleted
+     */
+    @Modifying
+    @NativeQuery("DELETE FROM address_books WHERE pk = :pk")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "address_books"))
+    int deleteByPk(@Param("pk") final long pk);
 }
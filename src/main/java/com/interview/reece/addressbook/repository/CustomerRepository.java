@@ -1,13 +1,29 @@
 package com.interview.reece.addressbook.repository;
 
+import com.interview.reece.addressbook.aggregate.CustomerNamePhoneNumber;
+import com.interview.reece.addressbook.aggregate.CustomerPhoneNumber;
+import com.interview.reece.addressbook.aggregate.CustomerSummary;
 import com.interview.reece.addressbook.aggregate.MergeCustomer;
 import com.interview.reece.addressbook.model.Customer;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.NativeQuery;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
 
 @Repository
 public interface CustomerRepository extends JpaRepository<Customer, Long> {
@@ -18,6 +34,155 @@ public interface CustomerRepository extends JpaRepository<Customer, Long> {
      * @return list of customers
      */
     @NativeQuery(value = "SELECT c.name, ARRAY_AGG(p.PHONE_NUMBERS) as phoneNumbers  FROM CUSTOMERS as c JOIN customer_phone_numbers as p ON c.pk=p.customer_pk group by name",
-            countQuery = "SELECT count(c.name) FROM CUSTOMERS as c JOIN customer_phone_numbers as p ON c.pk=p.customer_pk group by name")
+            countQuery = "SELECT count(DISTINCT c.name) FROM CUSTOMERS as c JOIN customer_phone_numbers as p ON c.pk=p.customer_pk")
     Page<MergeCustomer> findDistinctName(final Pageable pageable);
+
+    /**
+     * Same as {@link #findDistinctName(Pageable)} without counting the total number of customers
+     *
+     * @return slice of customers
+     */
+    @NativeQuery(value = "SELECT c.name, ARRAY_AGG(p.PHONE_NUMBERS) as phoneNumbers  FROM CUSTOMERS as c JOIN customer_phone_numbers as p ON c.pk=p.customer_pk group by name")
+    Slice<MergeCustomer> findDistinctNameSlice(final Pageable pageable);
+
+    /**
+     * Streams the name and phone number of every customer having phone numbers, ordered by name.
+     * Must be consumed within a transaction and closed afterwards.
+     *
+     * @return stream of name and phone number rows
+     */
+    @Query("SELECT new com.interview.reece.addressbook.aggregate.CustomerNamePhoneNumber(c.name, p) FROM Customer c JOIN c.phoneNumbers p ORDER BY c.name")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<CustomerNamePhoneNumber> streamNamesWithPhoneNumbers();
+
+    /**
+     * Same as {@link #streamNamesWithPhoneNumbers()}, starting after the given name
+     *
+     * @param after the last name of the previous page, empty for the first page
+     * @return stream of name and phone number rows
+     */
+    @Query("SELECT new com.interview.reece.addressbook.aggregate.CustomerNamePhoneNumber(c.name, p) FROM Customer c JOIN c.phoneNumbers p WHERE c.name > :after ORDER BY c.name")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<CustomerNamePhoneNumber> streamNamesWithPhoneNumbersAfter(@Param("after") final String after);
+
+    /**
+     * @return the number of distinct names of the customers having phone numbers
+     */
+    @Query("SELECT count(DISTINCT c.name) FROM Customer c JOIN c.phoneNumbers p")
+    long countDistinctNameWithPhoneNumbers();
+
+    /**
+     * Returns the customers whose name starts with the prefix, ignoring case, ordered by name
+     *
+     * @param prefix the start of the name
+     * @param limit  the maximum number of customers to return
+     * @return list of customers
+     */
+    @EntityGraph(attributePaths = "phoneNumbers")
+    List<Customer> findByNameStartingWithIgnoreCaseOrderByName(final String prefix, final Limit limit);
+
+    /**
+     * Returns the customers owning the phone number as stored, with their phone numbers fetched by the same query
+     *
+     * @param phoneNumber the phone number
+     * @return list of customers
+     */
+    @EntityGraph(attributePaths = "phoneNumbers")
+    @Query("SELECT c FROM Customer c WHERE :phoneNumber MEMBER OF c.phoneNumbers")
+    List<Customer> findByPhoneNumber(@Param("phoneNumber") final String phoneNumber);
+
+    /**
+     * Returns a page of the customers of the address book, without loading the entities or their phone numbers
+     *
+     * @param addressBookId the address book id
+     * @param pageable      the page to return
+     * @return page of customers
+     */
+    Page<CustomerSummary> findSummariesByAddressBookPk(final long addressBookId, final Pageable pageable);
+
+    /**
+     * Returns the customers of the address book with an id greater than the given one, ordered by id, without
+     * loading the entities or their phone numbers
+     *
+     * @param addressBookId the address book id
+     * @param pk            the last id of the previous page
+     * @param limit         the maximum number of customers to return
+     * @return list of customers
+     */
+    List<CustomerSummary> findSummariesByAddressBookPkAndPkGreaterThanOrderByPk(final long addressBookId, final long pk, final Limit limit);
+
+    /**
+     * Returns the given customers joined with their phone numbers, ordered by customer pk
+     *
+     * @param pks the customer ids
+     * @return list of customer phone number rows
+     */
+    @Query("SELECT c.pk as pk, c.name as name, c.addressBook.pk as addressBookId, p as phoneNumber FROM Customer c LEFT JOIN c.phoneNumbers p WHERE c.pk IN :pks ORDER BY c.pk")
+    List<CustomerPhoneNumber> findPhoneNumbersByPkIn(@Param("pks") final Collection<Long> pks);
+
+    /**
+     * Streams every customer joined with its phone numbers, ordered by customer pk.
+     * Must be consumed within a transaction and closed afterwards.
+     *
+     * @return stream of customer phone number rows
+     */
+    @Query("SELECT c.pk as pk, c.name as name, c.addressBook.pk as addressBookId, p as phoneNumber FROM Customer c LEFT JOIN c.phoneNumbers p ORDER BY c.pk")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<CustomerPhoneNumber> streamAllWithPhoneNumbers();
+
+    /**
+     * Streams the customers of the address book joined with their phone numbers, ordered by customer pk.
+     * Must be consumed within a transaction and closed afterwards.
+     *
+     * @param addressBookId the address book id
+     * @return stream of customer phone number rows
+     */
+    @Query("SELECT c.pk as pk, c.name as name, c.addressBook.pk as addressBookId, p as phoneNumber FROM Customer c LEFT JOIN c.phoneNumbers p WHERE c.addressBook.pk = :addressBookId ORDER BY c.pk")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<CustomerPhoneNumber> streamByAddressBookPk(@Param("addressBookId") final long addressBookId);
+
+    /**
+     * Deletes the phone numbers of the given customers in one statement. Only the second level cache regions of the
+     * phone numbers are evicted.
+     *
+     * @param pks the customer ids
+     * @return number of phone numbers deleted
+     */
+    @Modifying
+    @NativeQuery("DELETE FROM customer_phone_numbers WHERE customer_pk IN (:pks)")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "customer_phone_numbers"))
+    int deletePhoneNumbersByPkIn(@Param("pks") final Collection<Long> pks);
+
+    /**
+     * Deletes the given customers in one statement, their phone numbers must be deleted first
+     *
+     * @param pks the customer ids
+     * @return number of customers deleted
+     */
+    @Modifying
+    @NativeQuery("DELETE FROM customers WHERE pk IN (:pks)")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "customers"))
+    int deleteByPkIn(@Param("pks") final Collection<Long> pks);
+
+    /**
+     * Deletes the phone numbers of every customer of the address book in one statement
+     *
+     * @param addressBookId the address book id
+     * @return number of phone numbers deleted
+     */
+    @Modifying
+    @NativeQuery("DELETE FROM customer_phone_numbers WHERE customer_pk IN (SELECT pk FROM customers WHERE address_book_id = :addressBookId)")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "customer_phone_numbers"))
+    int deletePhoneNumbersByAddressBookPk(@Param("addressBookId") final long addressBookId);
+
+    /**
+     * Deletes every customer of the address book in one statement, their phone numbers must be deleted first
+     *
+     * @param addressBookId the address book id
+     * @return number of customers deleted
+     */
+    @Modifying
+    @NativeQuery("DELETE FROM customers WHERE address_book_id = :addressBookId")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "customers"))
+    int deleteByAddressBookPk(@Param("addressBookId") final long addressBookId);
 }
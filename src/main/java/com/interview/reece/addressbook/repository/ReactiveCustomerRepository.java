@@ -0,0 +1,86 @@
+package com.interview.reece.addressbook.repository;
+
+import com.interview.reece.addressbook.dto.CustomerDTO;
+import com.interview.reece.addressbook.index.PhoneNumbers;
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Non-blocking reads of customers over R2DBC for the reactive profile. Rows are read as the subscriber requests
+ * them and grouped into customers on the fly, so a slow client holds back the query instead of buffering the result.
+ * Writes stay on the JPA repositories so the indexes and caches following Hibernate events remain in sync.
+ */
+@Repository
+@Profile("reactive")
+public class ReactiveCustomerRepository {
+
+    private final DatabaseClient databaseClient;
+
+    public ReactiveCustomerRepository(ConnectionFactory connectionFactory) {
+        this.databaseClient = DatabaseClient.create(connectionFactory);
+    }
+
+    /**
+     * @param addressBookId the address book id
+     * @return true when the address book exists
+     */
+    public Mono<Boolean> existsAddressBook(final long addressBookId) {
+        return databaseClient.sql("SELECT pk FROM address_books WHERE pk = :addressBookId")
+                .bind("addressBookId", addressBookId)
+                .map(row -> row.get("pk", Long.class))
+                .first()
+                .hasElement();
+    }
+
+    /**
+     * Streams the customers of the address book with their phone numbers, ordered by id
+     *
+     * @param addressBookId the address book id
+     * @return the customers
+     */
+    public Flux<CustomerDTO> findByAddressBookId(final long addressBookId) {
+        return databaseClient.sql("SELECT c.pk, c.name, p.phone_numbers FROM customers c " +
+                        "LEFT JOIN customer_phone_numbers p ON p.customer_pk = c.pk " +
+                        "WHERE c.address_book_id = :addressBookId ORDER BY c.pk")
+                .bind("addressBookId", addressBookId)
+                .map(row -> new CustomerRow(row.get("pk", Long.class), row.get("name", String.class), row.get("phone_numbers", String.class)))
+                .all()
+                .bufferUntilChanged(CustomerRow::pk)
+                .map(rows -> new CustomerDTO(rows.get(0).pk(), rows.get(0).name(), phoneNumbers(rows)));
+    }
+
+    /**
+     * Streams the customers merged by name, ordered by name. Like the unique customer listing, only customers
+     * having phone numbers are returned and each phone number is kept once however it was formatted.
+     *
+     * @return the unique customers
+     */
+    public Flux<CustomerDTO> findDistinctName() {
+        return databaseClient.sql("SELECT c.name, p.phone_numbers FROM customers c " +
+                        "JOIN customer_phone_numbers p ON p.customer_pk = c.pk ORDER BY c.name")
+                .map(row -> new CustomerRow(null, row.get("name", String.class), PhoneNumbers.normalize(row.get("phone_numbers", String.class))))
+                .all()
+                .bufferUntilChanged(CustomerRow::name)
+                .map(rows -> new CustomerDTO(rows.get(0).name(), phoneNumbers(rows)));
+    }
+
+    private static Set<String> phoneNumbers(final List<CustomerRow> rows) {
+        return rows.stream()
+                .map(CustomerRow::phoneNumber)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(HashSet::new));
+    }
+
+    private record CustomerRow(Long pk, String name, String phoneNumber) {
+    }
+}
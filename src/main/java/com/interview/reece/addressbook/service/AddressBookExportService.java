@@ -0,0 +1,87 @@
+package com.interview.reece.addressbook.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.interview.reece.addressbook.dto.ExportFormat;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exports every address book with its customers and phone numbers. Rows are read from a forward-only, read-only
+ * JDBC cursor and written to the output as they arrive, without entities or DTOs in between, so memory use does
+ * not depend on the size of the database.
+ */
+@Service
+@Timed(value = "addressbook.service", histogram = true)
+public class AddressBookExportService {
+
+    static final String EXPORT_QUERY = "SELECT b.pk, b.title, c.pk, c.name, p.phone_numbers FROM address_books b " +
+            "LEFT JOIN customers c ON c.address_book_id = b.pk " +
+            "LEFT JOIN customer_phone_numbers p ON p.customer_pk = c.pk " +
+            "ORDER BY b.pk, c.pk";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final int fetchSize;
+
+    public AddressBookExportService(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper, @Value("${addressbook.export.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Writes the export to the output, which is closed once the export is complete. When reading fails the output is
+     * left unfinished, without the last NDJSON line or the gzip trailer, so the client gets a broken download rather
+     * than a truncated one that looks complete. The export reads from one transaction, so it is consistent even
+     * while customers change.
+     *
+     * @param format       the format of the export
+     * @param gzip         whether to compress the export
+     * @param outputStream the output
+     */
+    @Transactional(readOnly = true)
+    public void export(final ExportFormat format, final boolean gzip, final OutputStream outputStream) throws IOException {
+        final OutputStream target = gzip ? new GZIPOutputStream(outputStream, BUFFER_SIZE) : outputStream;
+        final Writer writer = new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8), BUFFER_SIZE);
+        final ExportWriter exportWriter = format == ExportFormat.CSV ? new CsvExportWriter(writer) : new NdJsonExportWriter(objectMapper, writer);
+        try {
+            jdbcTemplate.query(connection -> {
+                final PreparedStatement statement = connection.prepareStatement(EXPORT_QUERY, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(fetchSize);
+                return statement;
+            }, (RowCallbackHandler) row -> write(exportWriter, row));
+        } catch (UncheckedIOException e) {
+            // the client went away
+            throw e.getCause();
+        }
+        exportWriter.close();
+    }
+
+    private static void write(final ExportWriter exportWriter, final ResultSet row) throws SQLException {
+        final long customerId = row.getLong(3);
+        final boolean hasCustomer = !row.wasNull();
+        try {
+            exportWriter.write(row.getLong(1), row.getString(2), hasCustomer ? customerId : null, row.getString(4), row.getString(5));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -1,36 +1,105 @@
 package com.interview.reece.addressbook.service;
 
+import com.interview.reece.addressbook.aggregate.AddressBookSummary;
+import com.interview.reece.addressbook.aggregate.CustomerPhoneNumber;
+import com.interview.reece.addressbook.aggregate.CustomerSnapshot;
+import com.interview.reece.addressbook.aggregate.CustomerSummary;
 import com.interview.reece.addressbook.aggregate.MergeCustomer;
+import com.interview.reece.addressbook.aggregate.ResolvedCustomer;
+import com.interview.reece.addressbook.cache.AddressBookList;
+import com.interview.reece.addressbook.cache.AddressBookListCache;
 import com.interview.reece.addressbook.dto.AddressBookDTO;
 import com.interview.reece.addressbook.dto.CustomerPageResult;
+import com.interview.reece.addressbook.dto.PageCursor;
+import com.interview.reece.addressbook.dto.PagedResult;
+import com.interview.reece.addressbook.dto.PhoneNumberOwnerDTO;
+import com.interview.reece.addressbook.dto.UniqueCustomerStrategy;
 import com.interview.reece.addressbook.dto.request.AddressBookRequestDTO;
 import com.interview.reece.addressbook.dto.CustomerDTO;
+import com.interview.reece.addressbook.dto.request.CustomerPatchRequestDTO;
 import com.interview.reece.addressbook.dto.request.CustomerRequestDTO;
 import com.interview.reece.addressbook.exception.AddressBookNotFoundException;
 import com.interview.reece.addressbook.exception.CustomerNotFoundException;
+import com.interview.reece.addressbook.exception.IndexNotReadyException;
+import com.interview.reece.addressbook.exception.InvalidPageSizeException;
+import com.interview.reece.addressbook.exception.WriteQueueFullException;
+import com.interview.reece.addressbook.exception.WriteTimeoutException;
+import com.interview.reece.addressbook.index.CustomerIndexMaintainer;
+import com.interview.reece.addressbook.index.CustomerSearchIndex;
+import com.interview.reece.addressbook.index.PhoneNumberIndex;
+import com.interview.reece.addressbook.index.PhoneNumbers;
+import com.interview.reece.addressbook.index.ResolvedCustomerIndex;
+import com.interview.reece.addressbook.index.UniqueCustomerIndex;
 import com.interview.reece.addressbook.model.AddressBook;
 import com.interview.reece.addressbook.model.Customer;
 import com.interview.reece.addressbook.repository.AddressBookRepository;
 import com.interview.reece.addressbook.repository.CustomerRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
+@Timed(value = "addressbook.service", histogram = true)
 public class AddressBookService {
 
+    /**
+     * most customers a search returns
+     */
+    public static final int MAX_SEARCH_LIMIT = 100;
+
+    /**
+     * most customers a page holds
+     */
+    public static final int MAX_PAGE_SIZE = 1000;
+
     private CustomerRepository customerRepository;
     private AddressBookRepository addressBookRepository;
+    private UniqueCustomerIndex uniqueCustomerIndex;
+    private CustomerSearchIndex customerSearchIndex;
+    private PhoneNumberIndex phoneNumberIndex;
+    private AddressBookListCache addressBookListCache;
+    private UniqueCustomerMerger uniqueCustomerMerger;
+    private ResolvedCustomerIndex resolvedCustomerIndex;
+    private CustomerIndexMaintainer customerIndexMaintainer;
+    private CustomerWriteBehindQueue customerWriteBehindQueue;
 
-    public AddressBookService(CustomerRepository customerRepository, AddressBookRepository addressBookRepository) {
+    public AddressBookService(CustomerRepository customerRepository, AddressBookRepository addressBookRepository, UniqueCustomerIndex uniqueCustomerIndex,
+                              CustomerSearchIndex customerSearchIndex, PhoneNumberIndex phoneNumberIndex, AddressBookListCache addressBookListCache,
+                              UniqueCustomerMerger uniqueCustomerMerger, ResolvedCustomerIndex resolvedCustomerIndex,
+                              CustomerIndexMaintainer customerIndexMaintainer, CustomerWriteBehindQueue customerWriteBehindQueue) {
         this.customerRepository = customerRepository;
         this.addressBookRepository = addressBookRepository;
+        this.uniqueCustomerIndex = uniqueCustomerIndex;
+        this.customerSearchIndex = customerSearchIndex;
+        this.phoneNumberIndex = phoneNumberIndex;
+        this.addressBookListCache = addressBookListCache;
+        this.uniqueCustomerMerger = uniqueCustomerMerger;
+        this.resolvedCustomerIndex = resolvedCustomerIndex;
+        this.customerIndexMaintainer = customerIndexMaintainer;
+        this.customerWriteBehindQueue = customerWriteBehindQueue;
     }
 
     /**
@@ -39,9 +108,93 @@ public class AddressBookService {
      * @param addressBookId the address book id
      * @return list of customers
      */
+    @Transactional(readOnly = true)
     public List<CustomerDTO> getAllCustomerByAddressBookId(final long addressBookId) {
-        final AddressBook addressBook = getAddressBook(addressBookId);
-        return addressBook.getCustomers().stream().map(this::convertToCustomerDTO).collect(Collectors.toList());
+        getAddressBook(addressBookId);
+        final List<CustomerDTO> customers = new ArrayList<>();
+        try (Stream<CustomerPhoneNumber> rows = customerRepository.streamByAddressBookPk(addressBookId)) {
+            CustomerSnapshot.group(rows, customer -> customers.add(CustomerConverter.toCustomerDTO(customer)));
+        }
+        return customers;
+    }
+
+    /**
+     * Returns a page of the customers that belong to the address book with given id, ordered by id
+     *
+     * @param addressBookId the address book id
+     * @param page          the page number
+     * @param pageSize      the page size
+     * @return the page of customers
+     * @throws InvalidPageSizeException when pageSize is not within 1 and {@value #MAX_PAGE_SIZE}
+     */
+    @Transactional(readOnly = true)
+    public CustomerPageResult getCustomersByAddressBookId(final long addressBookId, final int page, final int pageSize) {
+        checkPageSize(pageSize);
+        getAddressBook(addressBookId);
+        final Page<CustomerSummary> pagedCustomer = customerRepository.findSummariesByAddressBookPk(addressBookId, PageRequest.of(page, pageSize, Sort.by("pk")));
+        final CustomerPageResult result = new CustomerPageResult(page, pageSize, pagedCustomer);
+        final List<CustomerDTO> customers = loadCustomers(pagedCustomer.getContent());
+        result.setResults(customers);
+        if (pagedCustomer.hasNext() && !customers.isEmpty()) {
+            result.setNextCursor(PageCursor.encode(customers.get(customers.size() - 1).getId()));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the page of customers of the address book following the given cursor, ordered by id.
+     * Totals are not computed.
+     *
+     * @param addressBookId the address book id
+     * @param cursor        the cursor of the previous page, blank for the first page
+     * @param pageSize      the page size
+     * @return the page of customers with the cursor of the next page
+     * @throws InvalidPageSizeException when pageSize is not within 1 and {@value #MAX_PAGE_SIZE}
+     */
+    @Transactional(readOnly = true)
+    public CustomerPageResult getCustomersByAddressBookIdAfter(final long addressBookId, final String cursor, final int pageSize) {
+        checkPageSize(pageSize);
+        final long after = PageCursor.decodeId(cursor);
+        getAddressBook(addressBookId);
+        // fetch one extra customer to know whether there is a next page
+        final List<CustomerSummary> pagedCustomer = customerRepository.findSummariesByAddressBookPkAndPkGreaterThanOrderByPk(addressBookId, after, Limit.of(pageSize + 1));
+        final List<CustomerDTO> customers = loadCustomers(pagedCustomer.subList(0, Math.min(pageSize, pagedCustomer.size())));
+
+        final CustomerPageResult result = new CustomerPageResult(0, pageSize);
+        result.setCurrentPageSize(customers.size());
+        result.setTotalSize(PagedResult.UNKNOWN_TOTAL);
+        result.setTotalPages(PagedResult.UNKNOWN_TOTAL);
+        result.setResults(customers);
+        result.setHasNext(pagedCustomer.size() > pageSize);
+        if (result.isHasNext()) {
+            result.setNextCursor(PageCursor.encode(customers.get(customers.size() - 1).getId()));
+        }
+        return result;
+    }
+
+    /**
+     * Passes every customer of the address book to the consumer, ordered by id. Customers are read from a
+     * database cursor and converted one at a time, so memory use does not depend on the size of the address book.
+     *
+     * @param addressBookId the address book id
+     * @param consumer      receives each customer
+     */
+    @Transactional(readOnly = true)
+    public void streamCustomersByAddressBookId(final long addressBookId, final Consumer<CustomerDTO> consumer) {
+        try (Stream<CustomerPhoneNumber> rows = customerRepository.streamByAddressBookPk(addressBookId)) {
+            CustomerSnapshot.group(rows, customer -> consumer.accept(CustomerConverter.toCustomerDTO(customer)));
+        }
+    }
+
+    /**
+     * Returns the address book with given id
+     *
+     * @param addressBookId the address book id
+     * @return the address book
+     */
+    @Transactional(readOnly = true)
+    public AddressBookDTO getAddressBookById(final long addressBookId) {
+        return convertToAddressBookDTO(getAddressBook(addressBookId));
     }
 
     /**
@@ -64,13 +217,115 @@ public class AddressBookService {
      * @return new Customer
      */
     public CustomerDTO createCustomer(final long addressBookId, final CustomerRequestDTO customerRequest) {
+        return createCustomer(addressBookId, customerRequest, true);
+    }
+
+    /**
+     * Creates new customer and assign it to the address book with addressBookId. With write-behind enabled the
+     * customer is queued with its id reserved and written with other queued customers in one transaction.
+     *
+     * @param addressBookId   the addressBookId to attach the customer
+     * @param customerRequest the request with customer details
+     * @param waitForCommit   whether to return only once a queued customer is committed
+     * @return new Customer
+     * @throws WriteQueueFullException when write-behind is enabled and too many customers are queued
+     * @throws WriteTimeoutException    when waiting for a queued customer that is not committed within the commit timeout,
+     *                                  carrying the customer that is still written later
+     */
+    public CustomerDTO createCustomer(final long addressBookId, final CustomerRequestDTO customerRequest, final boolean waitForCommit) {
         Objects.requireNonNull(customerRequest,"customerRequest is required.");
         final AddressBook addressBook = getAddressBook(addressBookId);
+        if (customerWriteBehindQueue.isEnabled()) {
+            final CustomerWriteBehindQueue.QueuedCustomer queued = customerWriteBehindQueue.enqueue(addressBookId, customerRequest.getName(), customerRequest.getPhoneNumbers());
+            if (waitForCommit) {
+                awaitCommit(queued);
+            }
+            return queued.toCustomerDTO();
+        }
         final Customer customer = convertRequestToCustomer(customerRequest);
         customer.setAddressBook(addressBook);
         customerRepository.save(customer);
-        return convertToCustomerDTO(customer);
+        return CustomerConverter.toCustomerDTO(customer);
+
+    }
+
+    /**
+     * @return whether new customers are queued and written in batches instead of one transaction each
+     */
+    public boolean isWriteBehindEnabled() {
+        return customerWriteBehindQueue.isEnabled();
+    }
 
+    private static void awaitCommit(final CustomerWriteBehindQueue.QueuedCustomer queued) {
+        try {
+            queued.committed().join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof TimeoutException) {
+                throw new WriteTimeoutException("Customer [%d] is queued but not committed yet".formatted(queued.id()), queued.toCustomerDTO());
+            }
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Replaces the name and phone numbers of the customer
+     *
+     * @param customerId      the customer's id to update
+     * @param customerRequest the new customer details
+     * @return the updated customer
+     */
+    @Transactional
+    public CustomerDTO updateCustomer(final long customerId, final CustomerRequestDTO customerRequest) {
+        Objects.requireNonNull(customerRequest, "customerRequest is required.");
+        final Set<String> phoneNumbers = customerRequest.getPhoneNumbers() == null ? Set.of() : customerRequest.getPhoneNumbers();
+        return updateCustomer(customerId, customerRequest.getName(), phoneNumbers);
+    }
+
+    /**
+     * Updates the name and phone numbers of the customer given in the request, leaving the others unchanged
+     *
+     * @param customerId   the customer's id to update
+     * @param patchRequest the customer details to change
+     * @return the updated customer
+     */
+    @Transactional
+    public CustomerDTO patchCustomer(final long customerId, final CustomerPatchRequestDTO patchRequest) {
+        Objects.requireNonNull(patchRequest, "patchRequest is required.");
+        return updateCustomer(customerId, patchRequest.getName(), patchRequest.getPhoneNumbers());
+    }
+
+    private CustomerDTO updateCustomer(final long customerId, final String name, final Set<String> phoneNumbers) {
+        final Customer customer = getCustomer(customerId);
+        if (name != null) {
+            customer.setName(name);
+        }
+        if (phoneNumbers != null) {
+            updatePhoneNumbers(customer, phoneNumbers);
+        }
+        // Hibernate raises no entity event when only the phone numbers change, so the indexes are updated here from
+        // the committed row, which may already be newer than this update or deleted
+        TransactionCallbacks.afterCommit(() -> customerIndexMaintainer.refresh(customerId));
+        return CustomerConverter.toCustomerDTO(customer);
+    }
+
+    /**
+     * Changes the phone numbers of the customer in place, so that Hibernate deletes and inserts only the changed rows
+     * instead of recreating the whole collection
+     *
+     * @param customer     the managed customer
+     * @param phoneNumbers the new phone numbers
+     */
+    protected void updatePhoneNumbers(final Customer customer, final Set<String> phoneNumbers) {
+        final Set<String> current = customer.getPhoneNumbers();
+        if (current == null) {
+            customer.setPhoneNumbers(new HashSet<>(phoneNumbers));
+            return;
+        }
+        current.removeIf(phoneNumber -> !phoneNumbers.contains(phoneNumber));
+        current.addAll(phoneNumbers);
     }
 
     /**
@@ -89,22 +344,236 @@ public class AddressBookService {
      * @return address books
      */
     public List<AddressBookDTO> getAllAddressBooks() {
-        return addressBookRepository.findAll().stream()
+        return getAddressBookList().addressBooks();
+    }
+
+    /**
+     * Returns every address book with the version they were loaded at, from the cache when no address book changed
+     *
+     * @return the address books
+     */
+    public AddressBookList getAddressBookList() {
+        return addressBookListCache.get(() -> addressBookRepository.findAllSummaries().stream()
                 .map(this::convertToAddressBookDTO)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
 
     public CustomerPageResult getAllUniqueCustomers(int page, int pageSize) {
+        return getAllUniqueCustomers(page, pageSize, true);
+    }
+
+    public CustomerPageResult getAllUniqueCustomers(int page, int pageSize, boolean includeTotals) {
+        return getAllUniqueCustomers(page, pageSize, includeTotals, UniqueCustomerStrategy.NAME);
+    }
+
+    /**
+     * Returns a page of unique customers
+     *
+     * @param page          the page number
+     * @param pageSize      the page size
+     * @param includeTotals whether to count the total number of customers, skipped when false
+     * @param strategy      how customers are found to be the same person
+     * @return the page of customers
+     * @throws InvalidPageSizeException when pageSize is not within 1 and {@value #MAX_PAGE_SIZE}
+     */
+    public CustomerPageResult getAllUniqueCustomers(int page, int pageSize, boolean includeTotals, UniqueCustomerStrategy strategy) {
+        checkPageSize(pageSize);
+        final Pageable pageable = PageRequest.of(page, pageSize, Sort.by("name"));
+        if (strategy == UniqueCustomerStrategy.NAME_AND_PHONE) {
+            final ResolvedCustomerIndex resolvedCustomers = findResolvedCustomers();
+            return toPageResult(page, pageSize, includeTotals ? resolvedCustomers.findAll(pageable) : resolvedCustomers.findSlice(pageable), ResolvedCustomer::key);
+        }
+        return toPageResult(page, pageSize, includeTotals ? findUniqueCustomers(pageable) : findUniqueCustomersSlice(pageable), MergeCustomer::getName);
+    }
+
+    public CustomerPageResult getAllUniqueCustomersAfter(final String cursor, final int pageSize) {
+        return getAllUniqueCustomersAfter(cursor, pageSize, UniqueCustomerStrategy.NAME);
+    }
+
+    /**
+     * Returns the page of unique customers following the given cursor. The page is located by seeking past the
+     * last customer of the previous page, so deep pages cost the same as the first one. Totals are not computed.
+     *
+     * @param cursor   the cursor of the previous page, blank for the first page
+     * @param pageSize the page size
+     * @param strategy how customers are found to be the same person, must be the one of the previous page
+     * @return the page of customers with the cursor of the next page
+     * @throws InvalidPageSizeException when pageSize is not within 1 and {@value #MAX_PAGE_SIZE}
+     */
+    public CustomerPageResult getAllUniqueCustomersAfter(final String cursor, final int pageSize, final UniqueCustomerStrategy strategy) {
+        checkPageSize(pageSize);
+        final String after = PageCursor.decode(cursor);
+        // fetch one extra customer to know whether there is a next page
+        if (strategy == UniqueCustomerStrategy.NAME_AND_PHONE) {
+            return toPageResult(pageSize, findResolvedCustomers().findAfter(after, pageSize + 1), ResolvedCustomer::key);
+        }
+        return toPageResult(pageSize, findUniqueCustomersAfter(after, pageSize + 1), MergeCustomer::getName);
+    }
+
+    /**
+     * Searches customers of every address book by phone number and by the start of their name, ignoring case.
+     * Customers owning the phone number come first, then the customers matching by name ordered by name.
+     *
+     * @param query the phone number or the start of the name
+     * @param requestedLimit the maximum number of customers to return, brought within 1 and {@value #MAX_SEARCH_LIMIT}
+     * @return the matching customers
+     */
+    @Transactional(readOnly = true)
+    public List<CustomerDTO> searchCustomers(final String query, final int requestedLimit) {
+        if (query == null || query.isBlank()) {
+            return List.of();
+        }
+        final int limit = Math.max(1, Math.min(requestedLimit, MAX_SEARCH_LIMIT));
+        if (customerSearchIndex.isReady()) {
+            return customerSearchIndex.search(query, limit).stream()
+                    .map(CustomerConverter::toCustomerDTO)
+                    .collect(Collectors.toList());
+        }
+        return findCustomers(query.trim(), limit);
+    }
+
+    /**
+     * Returns the customers owning the phone number, in any address book
+     *
+     * @param phoneNumber the phone number, in any format
+     * @return the owners with their address book
+     */
+    @Transactional(readOnly = true)
+    public List<PhoneNumberOwnerDTO> getPhoneNumberOwners(final String phoneNumber) {
+        Objects.requireNonNull(phoneNumber, "phoneNumber is required.");
+        final String normalized = PhoneNumbers.normalize(phoneNumber);
+        final List<PhoneNumberOwnerDTO> owners = findPhoneNumberOwners(phoneNumber).stream()
+                // the index may hold other numbers with the same hash and the database matches the number as stored
+                .filter(customer -> customer.getPhoneNumbers().stream().map(PhoneNumbers::normalize).anyMatch(normalized::equals))
+                .map(CustomerConverter::toPhoneNumberOwnerDTO)
+                .collect(Collectors.toList());
+        if (owners.isEmpty()) {
+            throw new CustomerNotFoundException("No customer found for phone number [%s]".formatted(phoneNumber));
+        }
+        return owners;
+    }
+
+    /**
+     * Loads the owners found by the phone number index one by one, so they come from the second level cache when
+     * present, falling back to the database until the index is loaded
+     */
+    protected List<Customer> findPhoneNumberOwners(final String phoneNumber) {
+        if (phoneNumberIndex.isReady()) {
+            return Arrays.stream(phoneNumberIndex.findCustomerIds(phoneNumber))
+                    .mapToObj(customerRepository::findById)
+                    .flatMap(Optional::stream)
+                    .collect(Collectors.toList());
+        }
+        return customerRepository.findByPhoneNumber(phoneNumber.trim());
+    }
+
+    /**
+     * Searches the database until the search index is loaded. Phone numbers only match as stored.
+     */
+    protected List<CustomerDTO> findCustomers(final String query, final int limit) {
+        final Map<Long, Customer> found = new LinkedHashMap<>();
+        Stream.concat(customerRepository.findByPhoneNumber(query).stream(),
+                        customerRepository.findByNameStartingWithIgnoreCaseOrderByName(query, Limit.of(limit)).stream())
+                .forEach(customer -> found.putIfAbsent(customer.getPk(), customer));
+        return found.values().stream()
+                .limit(limit)
+                .map(CustomerConverter::toCustomerDTO)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Reads the phone numbers of the customers of a page with one query, keeping the order of the page
+     */
+    protected List<CustomerDTO> loadCustomers(final List<CustomerSummary> summaries) {
+        if (summaries.isEmpty()) {
+            return List.of();
+        }
+        final Map<Long, CustomerDTO> customers = new LinkedHashMap<>();
+        summaries.forEach(summary -> customers.put(summary.getPk(), new CustomerDTO(summary.getPk(), summary.getName(), Set.of())));
+        CustomerSnapshot.group(customerRepository.findPhoneNumbersByPkIn(customers.keySet()).stream(),
+                customer -> customers.put(customer.getPk(), CustomerConverter.toCustomerDTO(customer)));
+        return new ArrayList<>(customers.values());
+    }
+
+    private static void checkPageSize(final int pageSize) {
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new InvalidPageSizeException("pageSize must be between 1 and %d".formatted(MAX_PAGE_SIZE));
+        }
+    }
 
-        final Page<MergeCustomer> pagedCustomer = customerRepository.findDistinctName(PageRequest.of(page, pageSize, Sort.by("name")));
-        final CustomerPageResult result = new CustomerPageResult(page,pageSize,pagedCustomer);
+    private <T extends MergeCustomer> CustomerPageResult toPageResult(final int page, final int pageSize, final Slice<T> pagedCustomer,
+                                                                      final Function<T, String> cursorKey) {
+        final CustomerPageResult result = new CustomerPageResult(page, pageSize, pagedCustomer);
         final List<CustomerDTO> customers = pagedCustomer.stream()
-                .map(this::convertToCustomerDTO)
+                .map(CustomerConverter::toCustomerDTO)
                 .collect(Collectors.toList());
         result.setResults(customers);
+        if (pagedCustomer.hasNext() && !customers.isEmpty()) {
+            result.setNextCursor(PageCursor.encode(cursorKey.apply(pagedCustomer.getContent().get(customers.size() - 1))));
+        }
         return result;
     }
 
+    /**
+     * Builds a page from the customers following a cursor, fetched with one extra customer to know whether there is
+     * a next page
+     */
+    private <T extends MergeCustomer> CustomerPageResult toPageResult(final int pageSize, final List<T> mergeCustomers, final Function<T, String> cursorKey) {
+        final List<CustomerDTO> customers = mergeCustomers.stream()
+                .limit(pageSize)
+                .map(CustomerConverter::toCustomerDTO)
+                .collect(Collectors.toList());
+
+        final CustomerPageResult result = new CustomerPageResult(0, pageSize);
+        result.setCurrentPageSize(customers.size());
+        result.setTotalSize(PagedResult.UNKNOWN_TOTAL);
+        result.setTotalPages(PagedResult.UNKNOWN_TOTAL);
+        result.setResults(customers);
+        result.setHasNext(mergeCustomers.size() > pageSize);
+        if (result.isHasNext()) {
+            result.setNextCursor(PageCursor.encode(cursorKey.apply(mergeCustomers.get(customers.size() - 1))));
+        }
+        return result;
+    }
+
+    /**
+     * Reads the resolved customers from the maintained index. Resolving needs every customer sharing a normalized
+     * name, so until the index is loaded there is no cheaper way than resolving the whole table per request.
+     *
+     * @throws IndexNotReadyException until the index is loaded
+     */
+    protected ResolvedCustomerIndex findResolvedCustomers() {
+        if (!resolvedCustomerIndex.isReady()) {
+            throw new IndexNotReadyException("Customers resolved by name and phone number are not available until the index is loaded");
+        }
+        return resolvedCustomerIndex;
+    }
+
+    /**
+     * Reads the unique customers from the maintained index, falling back to merging them from the database until
+     * the index is loaded
+     */
+    protected Page<MergeCustomer> findUniqueCustomers(final Pageable pageable) {
+        if (uniqueCustomerIndex.isReady()) {
+            return uniqueCustomerIndex.findAll(pageable);
+        }
+        return uniqueCustomerMerger.findAll(pageable);
+    }
+
+    protected Slice<MergeCustomer> findUniqueCustomersSlice(final Pageable pageable) {
+        if (uniqueCustomerIndex.isReady()) {
+            return uniqueCustomerIndex.findSlice(pageable);
+        }
+        return uniqueCustomerMerger.findSlice(pageable);
+    }
+
+    protected List<MergeCustomer> findUniqueCustomersAfter(final String after, final int limit) {
+        if (uniqueCustomerIndex.isReady()) {
+            return uniqueCustomerIndex.findAfter(after, limit);
+        }
+        return uniqueCustomerMerger.findAfter(after, limit);
+    }
+
     protected AddressBook getAddressBook(final long addressBookId) {
         return addressBookRepository.findById(addressBookId).orElseThrow(() -> new AddressBookNotFoundException("No address book found for [%d]".formatted(addressBookId)));
     }
@@ -113,15 +582,11 @@ public class AddressBookService {
         return customerRepository.findById(customerId).orElseThrow(() -> new CustomerNotFoundException("No customer found for id [%d]".formatted(customerId)));
     }
 
-    protected CustomerDTO convertToCustomerDTO(final Customer customer) {
-        return new CustomerDTO(customer.getPk(), customer.getName(), customer.getPhoneNumbers());
-    }
-
-    protected CustomerDTO convertToCustomerDTO(final MergeCustomer customer) {
-        return new CustomerDTO(customer.getName(), customer.getPhoneNumbers());
+    protected AddressBookDTO convertToAddressBookDTO(final AddressBook addressBook) {
+        return new AddressBookDTO(addressBook.getPk(), addressBook.getTitle());
     }
 
-    protected AddressBookDTO convertToAddressBookDTO(final AddressBook addressBook) {
+    protected AddressBookDTO convertToAddressBookDTO(final AddressBookSummary addressBook) {
         return new AddressBookDTO(addressBook.getPk(), addressBook.getTitle());
     }
 
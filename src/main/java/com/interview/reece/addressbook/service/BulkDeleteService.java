@@ -0,0 +1,85 @@
+package com.interview.reece.addressbook.service;
+
+import com.interview.reece.addressbook.cache.AddressBookListCache;
+import com.interview.reece.addressbook.dto.BulkDeleteResult;
+import com.interview.reece.addressbook.exception.AddressBookNotFoundException;
+import com.interview.reece.addressbook.index.CustomerIndexMaintainer;
+import com.interview.reece.addressbook.repository.AddressBookRepository;
+import com.interview.reece.addressbook.repository.CustomerRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Deletes customers and address books with set based SQL, without loading the entities into the persistence context.
+ * Hibernate raises no entity events for these deletes, so the customer indexes and the address book list cache are
+ * updated here once the transaction commits. The second level cache regions of the touched tables are evicted by
+ * Hibernate.
+ */
+@Service
+@Timed(value = "addressbook.service", histogram = true)
+public class BulkDeleteService {
+
+    /**
+     * customer ids per delete statement, keeps the IN lists within what the database parses quickly
+     */
+    static final int ID_BATCH_SIZE = 1000;
+
+    private final CustomerRepository customerRepository;
+    private final AddressBookRepository addressBookRepository;
+    private final CustomerIndexMaintainer customerIndexMaintainer;
+    private final AddressBookListCache addressBookListCache;
+
+    public BulkDeleteService(CustomerRepository customerRepository, AddressBookRepository addressBookRepository,
+                             CustomerIndexMaintainer customerIndexMaintainer, AddressBookListCache addressBookListCache) {
+        this.customerRepository = customerRepository;
+        this.addressBookRepository = addressBookRepository;
+        this.customerIndexMaintainer = customerIndexMaintainer;
+        this.addressBookListCache = addressBookListCache;
+    }
+
+    /**
+     * Deletes the customers with the given ids and their phone numbers. Unknown ids are ignored.
+     *
+     * @param customerIds the ids of the customers to delete
+     * @return the number of deleted customers
+     */
+    @Transactional
+    public BulkDeleteResult removeCustomers(final Collection<Long> customerIds) {
+        Objects.requireNonNull(customerIds, "customerIds is required.");
+        final List<Long> ids = customerIds.stream().filter(Objects::nonNull).distinct().toList();
+        long deleted = 0;
+        for (int from = 0; from < ids.size(); from += ID_BATCH_SIZE) {
+            final List<Long> batch = ids.subList(from, Math.min(ids.size(), from + ID_BATCH_SIZE));
+            customerRepository.deletePhoneNumbersByPkIn(batch);
+            deleted += customerRepository.deleteByPkIn(batch);
+        }
+        TransactionCallbacks.afterCommit(() -> ids.forEach(customerIndexMaintainer::remove));
+        return new BulkDeleteResult(deleted);
+    }
+
+    /**
+     * Deletes the address book with its customers and their phone numbers
+     *
+     * @param addressBookId the id of the address book to delete
+     * @return the number of deleted customers
+     */
+    @Transactional
+    public BulkDeleteResult removeAddressBook(final long addressBookId) {
+        if (!addressBookRepository.existsById(addressBookId)) {
+            throw new AddressBookNotFoundException("No address book found for [%d]".formatted(addressBookId));
+        }
+        customerRepository.deletePhoneNumbersByAddressBookPk(addressBookId);
+        final int deleted = customerRepository.deleteByAddressBookPk(addressBookId);
+        addressBookRepository.deleteByPk(addressBookId);
+        TransactionCallbacks.afterCommit(() -> {
+            customerIndexMaintainer.removeAddressBook(addressBookId);
+            addressBookListCache.invalidate();
+        });
+        return new BulkDeleteResult(deleted);
+    }
+}
@@ -0,0 +1,66 @@
+package com.interview.reece.addressbook.service;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writes the export as CSV with one line per phone number. Values are quoted only when they hold a comma, a quote
+ * or a line break, as in RFC 4180.
+ */
+public class CsvExportWriter implements ExportWriter {
+
+    static final String HEADER = "address_book_id,address_book_title,customer_id,customer_name,phone_number";
+
+    private final Writer writer;
+
+    public CsvExportWriter(final Writer writer) throws IOException {
+        this.writer = writer;
+        writer.write(HEADER);
+        writer.write('\n');
+    }
+
+    @Override
+    public void write(final long addressBookId, final String addressBookTitle, final Long customerId, final String customerName,
+                      final String phoneNumber) throws IOException {
+        writer.write(Long.toString(addressBookId));
+        writer.write(',');
+        writeValue(addressBookTitle);
+        writer.write(',');
+        if (customerId != null) {
+            writer.write(customerId.toString());
+        }
+        writer.write(',');
+        writeValue(customerName);
+        writer.write(',');
+        writeValue(phoneNumber);
+        writer.write('\n');
+    }
+
+    private void writeValue(final String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (!needsQuotes(value)) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    private static boolean needsQuotes(final String value) {
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
@@ -0,0 +1,43 @@
+package com.interview.reece.addressbook.service;
+
+import com.interview.reece.addressbook.aggregate.CustomerSnapshot;
+import com.interview.reece.addressbook.aggregate.MergeCustomer;
+import com.interview.reece.addressbook.dto.CustomerDTO;
+import com.interview.reece.addressbook.dto.PhoneNumberOwnerDTO;
+import com.interview.reece.addressbook.model.Customer;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Converts customers to the DTOs returned by the API
+ */
+public final class CustomerConverter {
+
+    private CustomerConverter() {
+    }
+
+    public static CustomerDTO toCustomerDTO(final Customer customer) {
+        return new CustomerDTO(customer.getPk(), customer.getName(), copyPhoneNumbers(customer));
+    }
+
+    public static CustomerDTO toCustomerDTO(final CustomerSnapshot customer) {
+        return new CustomerDTO(customer.getPk(), customer.getName(), customer.getPhoneNumbers());
+    }
+
+    public static CustomerDTO toCustomerDTO(final MergeCustomer customer) {
+        return new CustomerDTO(customer.getName(), customer.getPhoneNumbers());
+    }
+
+    public static PhoneNumberOwnerDTO toPhoneNumberOwnerDTO(final Customer customer) {
+        return new PhoneNumberOwnerDTO(customer.getPk(), customer.getName(), copyPhoneNumbers(customer),
+                customer.getAddressBook().getPk(), customer.getAddressBook().getTitle());
+    }
+
+    /**
+     * Copies the phone numbers, so a lazy collection is read inside the transaction and not once the DTO is serialized
+     */
+    private static Set<String> copyPhoneNumbers(final Customer customer) {
+        return customer.getPhoneNumbers() == null ? null : new HashSet<>(customer.getPhoneNumbers());
+    }
+}
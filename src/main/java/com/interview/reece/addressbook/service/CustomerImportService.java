@@ -0,0 +1,132 @@
+package com.interview.reece.addressbook.service;
+
+import com.interview.reece.addressbook.dto.CustomerImportResult;
+import com.interview.reece.addressbook.dto.request.CustomerRequestDTO;
+import com.interview.reece.addressbook.exception.AddressBookNotFoundException;
+import com.interview.reece.addressbook.model.AddressBook;
+import com.interview.reece.addressbook.model.Customer;
+import com.interview.reece.addressbook.repository.AddressBookRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service
+@Timed(value = "addressbook.service", histogram = true)
+public class CustomerImportService {
+
+    private final AddressBookRepository addressBookRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final int batchSize;
+
+    public CustomerImportService(AddressBookRepository addressBookRepository, EntityManager entityManager, PlatformTransactionManager transactionManager,
+                                 Validator validator, @Value("${addressbook.import.batch-size:500}") int batchSize) {
+        this.addressBookRepository = addressBookRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.validator = validator;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Creates the customers on the address book with addressBookId. Customers are validated one by one and
+     * persisted in batches, each batch in its own transaction. Invalid customers, and customers the database
+     * rejects, are reported in the result without stopping the import.
+     *
+     * @param addressBookId the addressBookId to attach the customers
+     * @param customers     the customers to create, read lazily
+     * @return the number of created customers and the failures
+     */
+    public CustomerImportResult importCustomers(final long addressBookId, final Iterator<CustomerRequestDTO> customers) {
+        Objects.requireNonNull(customers, "customers is required.");
+        if (!addressBookRepository.existsById(addressBookId)) {
+            throw new AddressBookNotFoundException("No address book found for [%d]".formatted(addressBookId));
+        }
+        final CustomerImportResult result = new CustomerImportResult();
+        final List<ImportRow> batch = new ArrayList<>(batchSize);
+        long index = 0;
+        while (hasNext(customers, index, result)) {
+            final CustomerRequestDTO customerRequest = next(customers, index, result);
+            if (customerRequest != null && isValid(customerRequest, index, result)) {
+                batch.add(new ImportRow(index, customerRequest));
+            }
+            index++;
+            if (batch.size() == batchSize) {
+                persist(addressBookId, batch, result);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            persist(addressBookId, batch, result);
+        }
+        return result;
+    }
+
+    /**
+     * Content that cannot be read ends the import, the customers read so far are still created
+     */
+    private boolean hasNext(final Iterator<CustomerRequestDTO> customers, final long index, final CustomerImportResult result) {
+        try {
+            return customers.hasNext();
+        } catch (RuntimeException e) {
+            result.addFailure(index, List.of("Unreadable customer, import stopped: " + e.getMessage()));
+            return false;
+        }
+    }
+
+    /**
+     * A customer that cannot be bound is reported and skipped
+     */
+    private CustomerRequestDTO next(final Iterator<CustomerRequestDTO> customers, final long index, final CustomerImportResult result) {
+        try {
+            return customers.next();
+        } catch (RuntimeException e) {
+            result.addFailure(index, List.of("Unreadable customer: " + e.getMessage()));
+            return null;
+        }
+    }
+
+    private boolean isValid(final CustomerRequestDTO customerRequest, final long index, final CustomerImportResult result) {
+        final Set<ConstraintViolation<CustomerRequestDTO>> violations = validator.validate(customerRequest);
+        if (!violations.isEmpty()) {
+            result.addFailure(index, violations.stream().map(ConstraintViolation::getMessage).collect(Collectors.toList()));
+        }
+        return violations.isEmpty();
+    }
+
+    private void persist(final long addressBookId, final List<ImportRow> rows, final CustomerImportResult result) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                final AddressBook addressBook = entityManager.getReference(AddressBook.class, addressBookId);
+                rows.forEach(row -> entityManager.persist(new Customer(row.request().getName(), row.request().getPhoneNumbers(), addressBook)));
+            });
+            result.addImported(rows.size());
+        } catch (DataAccessException | TransactionException | PersistenceException e) {
+            if (rows.size() == 1) {
+                result.addFailure(rows.get(0).index(), List.of(e.getMessage()));
+                return;
+            }
+            // retry one by one to keep the valid customers of the failed batch
+            rows.forEach(row -> persist(addressBookId, List.of(row), result));
+        }
+    }
+
+    private record ImportRow(long index, CustomerRequestDTO request) {
+    }
+}
@@ -0,0 +1,238 @@
+package com.interview.reece.addressbook.service;
+
+import com.interview.reece.addressbook.aggregate.CustomerSnapshot;
+import com.interview.reece.addressbook.dto.CustomerDTO;
+import com.interview.reece.addressbook.exception.WriteQueueFullException;
+import com.interview.reece.addressbook.index.CustomerIndexMaintainer;
+import com.interview.reece.addressbook.model.Customer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Write-behind for new customers. Customers get their id from the customer sequence when they are queued, and a
+ * single writer thread inserts them in batches with JDBC, one transaction per batch, so concurrent requests share a
+ * commit instead of paying for one each. The queue is bounded, a full queue rejects new customers instead of
+ * buffering without limit. A queued customer not committed within the commit timeout stops being waited for, and a
+ * writer thread that died is replaced on the next enqueue. Queued customers are written before shutdown completes.
+ */
+@Component
+public class CustomerWriteBehindQueue {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CustomerWriteBehindQueue.class);
+
+    static final String INSERT_CUSTOMER = "INSERT INTO customers (pk, name, address_book_id) VALUES (?, ?, ?)";
+
+    static final String INSERT_PHONE_NUMBER = "INSERT INTO customer_phone_numbers (customer_pk, phone_numbers) VALUES (?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final CustomerIndexMaintainer customerIndexMaintainer;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Duration commitTimeout;
+    private final BlockingQueue<QueuedCustomer> queue;
+
+    private volatile boolean running;
+
+    private volatile boolean stopped;
+
+    private volatile Thread writer;
+
+    public CustomerWriteBehindQueue(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager, EntityManagerFactory entityManagerFactory,
+                                    CustomerIndexMaintainer customerIndexMaintainer,
+                                    @Value("${addressbook.write-behind.enabled:false}") boolean enabled,
+                                    @Value("${addressbook.write-behind.capacity:10000}") int capacity,
+                                    @Value("${addressbook.write-behind.batch-size:500}") int batchSize,
+                                    @Value("${addressbook.write-behind.commit-timeout:5s}") Duration commitTimeout) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.entityManagerFactory = entityManagerFactory;
+        this.customerIndexMaintainer = customerIndexMaintainer;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.commitTimeout = commitTimeout;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        startWriter();
+    }
+
+    private synchronized void startWriter() {
+        writer = Thread.ofPlatform().name("customer-write-behind").daemon().start(this::drain);
+    }
+
+    /**
+     * Replaces the writer thread when it died, so the queue does not fill up with customers nobody writes
+     */
+    private synchronized void ensureWriter() {
+        if (running && writer != null && !writer.isAlive()) {
+            LOGGER.error("Customer write-behind thread died, starting a new one");
+            startWriter();
+        }
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        stopped = true;
+        if (writer == null) {
+            return;
+        }
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(30));
+        // queued while the writer was finishing, or left when it did not finish in time
+        final List<QueuedCustomer> left = new ArrayList<>();
+        queue.drainTo(left);
+        left.forEach(customer -> customer.committed().completeExceptionally(new IllegalStateException("Customer write-behind stopped")));
+    }
+
+    /**
+     * @return whether new customers are queued instead of inserted by the caller
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Reserves an id for the customer and queues it for insert
+     *
+     * @param addressBookId the address book of the customer, which must exist
+     * @param name          the name of the customer
+     * @param phoneNumbers  the phone numbers of the customer
+     * @return the queued customer, completed once its batch commits or exceptionally with a
+     * {@link TimeoutException} when it is not committed within the commit timeout
+     * @throws WriteQueueFullException when the queue is full
+     */
+    public QueuedCustomer enqueue(final long addressBookId, final String name, final Set<String> phoneNumbers) {
+        if (!enabled || stopped) {
+            throw new IllegalStateException("Customer write-behind is not accepting customers");
+        }
+        ensureWriter();
+        if (queue.remainingCapacity() == 0) {
+            throw new WriteQueueFullException("Too many customers waiting to be written, retry later");
+        }
+        final QueuedCustomer customer = new QueuedCustomer(allocateId(), addressBookId, name,
+                phoneNumbers == null ? Set.of() : Set.copyOf(phoneNumbers), new CompletableFuture<Void>().orTimeout(commitTimeout.toMillis(), TimeUnit.MILLISECONDS));
+        if (!queue.offer(customer)) {
+            throw new WriteQueueFullException("Too many customers waiting to be written, retry later");
+        }
+        return customer;
+    }
+
+    /**
+     * Takes the next id from the customer id generator, the same pooled block Hibernate inserts draw from
+     */
+    protected long allocateId() {
+        final SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        final IdentifierGenerator generator = (IdentifierGenerator) sessionFactory.getMappingMetamodel()
+                .getEntityDescriptor(Customer.class)
+                .getGenerator();
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            return (Long) generator.generate((SharedSessionContractImplementor) session, null);
+        }
+    }
+
+    private void drain() {
+        final List<QueuedCustomer> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                final QueuedCustomer first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException | Error e) {
+                // an error thrown by a batch must not end the writer, the customers after it would never be written
+                LOGGER.error("Failed writing {} queued customers", batch.size(), e);
+                batch.forEach(customer -> customer.committed().completeExceptionally(e));
+            }
+            batch.clear();
+        }
+    }
+
+    /**
+     * Inserts the customers in one transaction, one by one when the batch fails so that only the customers the
+     * database rejects are lost
+     */
+    void write(final List<QueuedCustomer> batch) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                insert(batch);
+                TransactionCallbacks.afterCommit(() -> committed(batch));
+            });
+        } catch (DataAccessException | TransactionException e) {
+            if (batch.size() == 1) {
+                LOGGER.warn("Queued customer [{}] was not written: {}", batch.get(0).id(), e.getMessage());
+                batch.get(0).committed().completeExceptionally(e);
+                return;
+            }
+            batch.forEach(customer -> write(List.of(customer)));
+        }
+    }
+
+    private void insert(final List<QueuedCustomer> batch) {
+        jdbcTemplate.batchUpdate(INSERT_CUSTOMER, batch, batch.size(), (statement, customer) -> {
+            statement.setLong(1, customer.id());
+            statement.setString(2, customer.name());
+            statement.setLong(3, customer.addressBookId());
+        });
+        final List<Object[]> phoneNumbers = new ArrayList<>();
+        batch.forEach(customer -> customer.phoneNumbers().forEach(phoneNumber -> phoneNumbers.add(new Object[]{customer.id(), phoneNumber})));
+        if (!phoneNumbers.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_PHONE_NUMBER, phoneNumbers);
+        }
+    }
+
+    private void committed(final List<QueuedCustomer> batch) {
+        // written with plain JDBC, Hibernate raises no insert event for the indexes
+        batch.forEach(customer -> customerIndexMaintainer.add(new CustomerSnapshot(customer.id(), customer.name(), customer.addressBookId(), customer.phoneNumbers())));
+        batch.forEach(customer -> customer.committed().complete(null));
+    }
+
+    /**
+     * A customer waiting to be written
+     *
+     * @param committed completes once the customer is committed, or exceptionally when it could not be written
+     */
+    public record QueuedCustomer(long id, long addressBookId, String name, Set<String> phoneNumbers, CompletableFuture<Void> committed) {
+
+        public CustomerDTO toCustomerDTO() {
+            return new CustomerDTO(id, name, phoneNumbers);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.interview.reece.addressbook.service;
+
+import com.interview.reece.addressbook.dto.SnapshotResult;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes the address books, customers and phone numbers to a binary snapshot file, loaded back into an empty database
+ * at startup by {@link SnapshotRestoreCallback}. The snapshot is read from one serializable transaction, so it is
+ * consistent while customers change.
+ */
+@Service
+@Timed(value = "addressbook.service", histogram = true)
+public class DatabaseSnapshotService {
+
+    static final String ADDRESS_BOOKS_QUERY = "SELECT pk, title FROM address_books ORDER BY pk";
+
+    static final String CUSTOMERS_QUERY = "SELECT c.pk, c.address_book_id, c.name, p.phone_numbers FROM customers c " +
+            "LEFT JOIN customer_phone_numbers p ON p.customer_pk = c.pk " +
+            "ORDER BY c.pk";
+
+    private static final int BUFFER_SIZE = 1024 * 1024;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Path file;
+    private final int fetchSize;
+
+    public DatabaseSnapshotService(JdbcTemplate jdbcTemplate,
+                                   @Value("${addressbook.snapshot.file:addressbook.snapshot}") Path file,
+                                   @Value("${addressbook.export.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.file = file;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Writes the snapshot to a temporary file next to the snapshot file and then replaces it, so a failed snapshot
+     * never leaves a partial file behind
+     *
+     * @return the number of address books, customers and phone numbers written
+     */
+    @Transactional(readOnly = true, isolation = Isolation.SERIALIZABLE)
+    public SnapshotResult writeSnapshot() throws IOException {
+        final long start = System.currentTimeMillis();
+        final Path target = file.toAbsolutePath();
+        Files.createDirectories(target.getParent());
+        final Path temporary = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+        try {
+            final SnapshotWriter writer = new SnapshotWriter(new BufferedOutputStream(Files.newOutputStream(temporary), BUFFER_SIZE));
+            try (writer) {
+                query(ADDRESS_BOOKS_QUERY, row -> writer.writeAddressBook(row.getLong(1), row.getString(2)));
+                writeCustomers(writer);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return new SnapshotResult(target.toString(), writer.getAddressBooks(), writer.getCustomers(), writer.getPhoneNumbers(),
+                    System.currentTimeMillis() - start);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private void writeCustomers(final SnapshotWriter writer) {
+        final CustomerRow customer = new CustomerRow();
+        query(CUSTOMERS_QUERY, row -> {
+            final long pk = row.getLong(1);
+            if (customer.pk != pk) {
+                customer.writeTo(writer);
+                customer.reset(pk, row.getLong(2), row.getString(3));
+            }
+            final String phoneNumber = row.getString(4);
+            if (phoneNumber != null) {
+                customer.phoneNumbers.add(phoneNumber);
+            }
+        });
+        customer.writeTo(writer);
+    }
+
+    private void query(final String sql, final SnapshotRowHandler handler) {
+        jdbcTemplate.query(connection -> {
+            final PreparedStatement statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            return statement;
+        }, (RowCallbackHandler) row -> {
+            try {
+                handler.write(row);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    @FunctionalInterface
+    private interface SnapshotRowHandler {
+        void write(ResultSet row) throws SQLException, IOException;
+    }
+
+    /**
+     * The customer being written, its phone numbers arrive on consecutive rows
+     */
+    private static final class CustomerRow {
+
+        private long pk = Long.MIN_VALUE;
+        private long addressBookId;
+        private String name;
+        private final List<String> phoneNumbers = new ArrayList<>();
+
+        void reset(final long pk, final long addressBookId, final String name) {
+            this.pk = pk;
+            this.addressBookId = addressBookId;
+            this.name = name;
+            this.phoneNumbers.clear();
+        }
+
+        void writeTo(final SnapshotWriter writer) {
+            if (pk == Long.MIN_VALUE) {
+                return;
+            }
+            try {
+                writer.writeCustomer(pk, addressBookId, name, phoneNumbers);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
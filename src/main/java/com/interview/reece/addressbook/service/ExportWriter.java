@@ -0,0 +1,21 @@
+package com.interview.reece.addressbook.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Writes the rows of the address book export, ordered by address book and customer
+ */
+public interface ExportWriter extends Closeable {
+
+    /**
+     * Writes one row of the export
+     *
+     * @param addressBookId    the address book id
+     * @param addressBookTitle the address book title
+     * @param customerId       the customer id, null for an address book without customers
+     * @param customerName     the customer name, null for an address book without customers
+     * @param phoneNumber      the phone number, null for a customer without phone numbers
+     */
+    void write(long addressBookId, String addressBookTitle, Long customerId, String customerName, String phoneNumber) throws IOException;
+}
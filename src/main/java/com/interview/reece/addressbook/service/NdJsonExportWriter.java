@@ -0,0 +1,81 @@
+package com.interview.reece.addressbook.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Writes the export as newline delimited JSON with one object per customer and its phone numbers, and one object
+ * without customer for every address book without customers. Only the phone numbers of the current customer are
+ * held in memory.
+ */
+public class NdJsonExportWriter implements ExportWriter {
+
+    private final JsonGenerator generator;
+
+    private long addressBookId;
+
+    private String addressBookTitle;
+
+    private Long customerId;
+
+    private String customerName;
+
+    private final List<String> phoneNumbers = new ArrayList<>();
+
+    private boolean pending;
+
+    public NdJsonExportWriter(final ObjectMapper objectMapper, final Writer writer) throws IOException {
+        this.generator = objectMapper.getFactory().createGenerator(writer);
+        this.generator.setRootValueSeparator(null);
+    }
+
+    @Override
+    public void write(final long addressBookId, final String addressBookTitle, final Long customerId, final String customerName,
+                      final String phoneNumber) throws IOException {
+        if (!pending || this.addressBookId != addressBookId || !Objects.equals(this.customerId, customerId)) {
+            flushCustomer();
+            this.addressBookId = addressBookId;
+            this.addressBookTitle = addressBookTitle;
+            this.customerId = customerId;
+            this.customerName = customerName;
+            pending = true;
+        }
+        if (phoneNumber != null) {
+            phoneNumbers.add(phoneNumber);
+        }
+    }
+
+    private void flushCustomer() throws IOException {
+        if (!pending) {
+            return;
+        }
+        generator.writeStartObject();
+        generator.writeNumberField("addressBookId", addressBookId);
+        generator.writeStringField("addressBookTitle", addressBookTitle);
+        if (customerId != null) {
+            generator.writeNumberField("id", customerId);
+            generator.writeStringField("name", customerName);
+            generator.writeArrayFieldStart("phoneNumbers");
+            for (final String phoneNumber : phoneNumbers) {
+                generator.writeString(phoneNumber);
+            }
+            generator.writeEndArray();
+        }
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+        phoneNumbers.clear();
+        pending = false;
+    }
+
+    @Override
+    public void close() throws IOException {
+        flushCustomer();
+        generator.close();
+    }
+}
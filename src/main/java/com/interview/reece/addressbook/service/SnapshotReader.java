@@ -0,0 +1,143 @@
+package com.interview.reece.addressbook.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads a snapshot written by {@link SnapshotWriter} through memory mapped windows of the file, so records are
+ * decoded straight from the page cache without copying the file through a stream buffer. Files larger than a window
+ * are remapped as the reader moves on.
+ */
+public class SnapshotReader implements Closeable {
+
+    public static final int DEFAULT_WINDOW_SIZE = 1 << 30;
+
+    /**
+     * Receives the records in file order, address books before their customers. The phone number list is reused
+     * between customers
+     */
+    public interface Handler {
+
+        void addressBook(long pk, String title) throws IOException;
+
+        void customer(long pk, long addressBookId, String name, List<String> phoneNumbers) throws IOException;
+    }
+
+    private final FileChannel channel;
+
+    private final long size;
+
+    private final int windowSize;
+
+    private MappedByteBuffer window;
+
+    private long windowStart;
+
+    private byte[] stringBuffer = new byte[256];
+
+    public SnapshotReader(final Path file) throws IOException {
+        this(file, DEFAULT_WINDOW_SIZE);
+    }
+
+    public SnapshotReader(final Path file, final int windowSize) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.size = channel.size();
+        this.windowSize = windowSize;
+        map(0);
+    }
+
+    /**
+     * Passes every record to the handler
+     *
+     * @param handler receives the records
+     * @throws IOException when the file is not a snapshot or is truncated
+     */
+    public void read(final Handler handler) throws IOException {
+        if (readInt() != SnapshotWriter.MAGIC) {
+            throw new IOException("Not an address book snapshot");
+        }
+        final int version = readInt();
+        if (version != SnapshotWriter.VERSION) {
+            throw new IOException("Unsupported snapshot version " + version);
+        }
+        final List<String> phoneNumbers = new ArrayList<>();
+        while (true) {
+            final byte tag = readByte();
+            switch (tag) {
+                case SnapshotWriter.END -> {
+                    return;
+                }
+                case SnapshotWriter.ADDRESS_BOOK -> handler.addressBook(readLong(), readString());
+                case SnapshotWriter.CUSTOMER -> {
+                    final long pk = readLong();
+                    final long addressBookId = readLong();
+                    final String name = readString();
+                    final int count = readInt();
+                    phoneNumbers.clear();
+                    for (int i = 0; i < count; i++) {
+                        phoneNumbers.add(readString());
+                    }
+                    handler.customer(pk, addressBookId, name, phoneNumbers);
+                }
+                default -> throw new IOException("Corrupt snapshot, unknown record " + tag);
+            }
+        }
+    }
+
+    private byte readByte() throws IOException {
+        ensure(Byte.BYTES);
+        return window.get();
+    }
+
+    private int readInt() throws IOException {
+        ensure(Integer.BYTES);
+        return window.getInt();
+    }
+
+    private long readLong() throws IOException {
+        ensure(Long.BYTES);
+        return window.getLong();
+    }
+
+    private String readString() throws IOException {
+        ensure(Short.BYTES);
+        final int length = Short.toUnsignedInt(window.getShort());
+        ensure(length);
+        if (stringBuffer.length < length) {
+            stringBuffer = new byte[Math.max(length, stringBuffer.length * 2)];
+        }
+        window.get(stringBuffer, 0, length);
+        return new String(stringBuffer, 0, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Moves the window to the current position when fewer than the needed bytes are left in it
+     */
+    private void ensure(final int bytes) throws IOException {
+        if (window.remaining() >= bytes) {
+            return;
+        }
+        final long position = windowStart + window.position();
+        if (position + bytes > size) {
+            throw new IOException("Truncated snapshot");
+        }
+        map(position);
+    }
+
+    private void map(final long position) throws IOException {
+        windowStart = position;
+        window = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(windowSize, size - position));
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
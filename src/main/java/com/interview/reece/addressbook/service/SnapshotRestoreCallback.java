@@ -0,0 +1,217 @@
+package com.interview.reece.addressbook.service;
+
+import org.flywaydb.core.api.callback.Callback;
+import org.flywaydb.core.api.callback.Context;
+import org.flywaydb.core.api.callback.Event;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Restores the snapshot written by {@link DatabaseSnapshotService} into an empty database when
+ * {@code addressbook.snapshot.restore-on-startup} is set. Runs once Flyway has migrated the schema, while the context
+ * is refreshing, so before Hibernate starts, before any id is handed out and before the web server takes requests.
+ * The file is read memory mapped and inserted with JDBC batches, bypassing JPA, then the id sequences are moved past
+ * the restored ids. The customer indexes are built from the restored rows once the application is ready.
+ */
+@Component
+public class SnapshotRestoreCallback implements Callback {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SnapshotRestoreCallback.class);
+
+    static final String INSERT_ADDRESS_BOOK = "INSERT INTO address_books (pk, title) VALUES (?, ?)";
+
+    static final String INSERT_CUSTOMER = "INSERT INTO customers (pk, name, address_book_id) VALUES (?, ?, ?)";
+
+    static final String INSERT_PHONE_NUMBER = "INSERT INTO customer_phone_numbers (customer_pk, phone_numbers) VALUES (?, ?)";
+
+    /**
+     * customers inserted per JDBC batch and transaction
+     */
+    static final int BATCH_SIZE = 1000;
+
+    private final Path file;
+    private final boolean restoreOnStartup;
+    private final int allocationSize;
+
+    public SnapshotRestoreCallback(@Value("${addressbook.snapshot.file:addressbook.snapshot}") Path file,
+                                   @Value("${addressbook.snapshot.restore-on-startup:false}") boolean restoreOnStartup,
+                                   @Value("${spring.jpa.properties.addressbook.id.allocation_size:50}") int allocationSize) {
+        this.file = file;
+        this.restoreOnStartup = restoreOnStartup;
+        this.allocationSize = allocationSize;
+    }
+
+    @Override
+    public boolean supports(final Event event, final Context context) {
+        return restoreOnStartup && event == Event.AFTER_MIGRATE;
+    }
+
+    @Override
+    public boolean canHandleInTransaction(final Event event, final Context context) {
+        return false;
+    }
+
+    @Override
+    public void handle(final Event event, final Context context) {
+        if (!Files.exists(file)) {
+            LOGGER.warn("No snapshot to restore at {}", file.toAbsolutePath());
+            return;
+        }
+        final long start = System.currentTimeMillis();
+        final Connection connection = context.getConnection();
+        try {
+            if (countAddressBooks(connection) > 0) {
+                // a persistent database already holds its data
+                LOGGER.info("Database is not empty, snapshot {} not restored", file.toAbsolutePath());
+                return;
+            }
+            final SnapshotLoader loader;
+            try (SnapshotReader reader = new SnapshotReader(file)) {
+                loader = load(connection, reader);
+            }
+            LOGGER.info("Restored {} address books, {} customers and {} phone numbers from {} in {} ms", loader.addressBooks,
+                    loader.customers, loader.phoneNumbers, file.toAbsolutePath(), System.currentTimeMillis() - start);
+        } catch (SQLException | IOException e) {
+            throw new IllegalStateException("Snapshot restore from %s failed: %s".formatted(file.toAbsolutePath(), e.getMessage()), e);
+        }
+    }
+
+    @Override
+    public String getCallbackName() {
+        return "addressbook-snapshot-restore";
+    }
+
+    private static long countAddressBooks(final Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery("SELECT count(*) FROM address_books")) {
+            result.next();
+            return result.getLong(1);
+        }
+    }
+
+    private SnapshotLoader load(final Connection connection, final SnapshotReader reader) throws SQLException, IOException {
+        final boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try (SnapshotLoader loader = new SnapshotLoader(connection)) {
+            reader.read(loader);
+            loader.flush();
+            restartSequence(connection, "address_books");
+            restartSequence(connection, "customers");
+            connection.commit();
+            return loader;
+        } catch (SQLException | IOException | RuntimeException e) {
+            // batches are committed as they load, remove them so the database is empty again, nothing else has
+            // written to it yet
+            connection.rollback();
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("DELETE FROM customer_phone_numbers");
+                statement.execute("DELETE FROM customers");
+                statement.execute("DELETE FROM address_books");
+            }
+            connection.commit();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    /**
+     * Moves the sequence so that the pooled optimizer's first block starts after the highest restored id
+     */
+    private void restartSequence(final Connection connection, final String table) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            final long max;
+            try (ResultSet result = statement.executeQuery("SELECT COALESCE(MAX(pk), 0) FROM " + table)) {
+                result.next();
+                max = result.getLong(1);
+            }
+            if (max > 0) {
+                statement.execute("ALTER SEQUENCE %s_seq RESTART WITH %d".formatted(table, max + allocationSize));
+            }
+        }
+    }
+
+    /**
+     * Inserts the records in JDBC batches, address books before customers before phone numbers so the foreign keys
+     * hold at every batch, committing every {@link #BATCH_SIZE} customers
+     */
+    private static final class SnapshotLoader implements SnapshotReader.Handler, AutoCloseable {
+
+        private final Connection connection;
+        private final PreparedStatement insertAddressBook;
+        private final PreparedStatement insertCustomer;
+        private final PreparedStatement insertPhoneNumber;
+        private int pending;
+        private long addressBooks;
+        private long customers;
+        private long phoneNumbers;
+
+        SnapshotLoader(final Connection connection) throws SQLException {
+            this.connection = connection;
+            this.insertAddressBook = connection.prepareStatement(INSERT_ADDRESS_BOOK);
+            this.insertCustomer = connection.prepareStatement(INSERT_CUSTOMER);
+            this.insertPhoneNumber = connection.prepareStatement(INSERT_PHONE_NUMBER);
+        }
+
+        @Override
+        public void addressBook(final long pk, final String title) throws IOException {
+            try {
+                insertAddressBook.setLong(1, pk);
+                insertAddressBook.setString(2, title);
+                insertAddressBook.addBatch();
+                addressBooks++;
+            } catch (SQLException e) {
+                throw new IOException(e);
+            }
+        }
+
+        @Override
+        public void customer(final long pk, final long addressBookId, final String name, final List<String> customerPhoneNumbers) throws IOException {
+            try {
+                insertCustomer.setLong(1, pk);
+                insertCustomer.setString(2, name);
+                insertCustomer.setLong(3, addressBookId);
+                insertCustomer.addBatch();
+                for (final String phoneNumber : customerPhoneNumbers) {
+                    insertPhoneNumber.setLong(1, pk);
+                    insertPhoneNumber.setString(2, phoneNumber);
+                    insertPhoneNumber.addBatch();
+                }
+                customers++;
+                phoneNumbers += customerPhoneNumbers.size();
+                if (++pending == BATCH_SIZE) {
+                    flush();
+                    connection.commit();
+                }
+            } catch (SQLException e) {
+                throw new IOException(e);
+            }
+        }
+
+        void flush() throws SQLException {
+            insertAddressBook.executeBatch();
+            insertCustomer.executeBatch();
+            insertPhoneNumber.executeBatch();
+            pending = 0;
+        }
+
+        @Override
+        public void close() throws SQLException {
+            insertAddressBook.close();
+            insertCustomer.close();
+            insertPhoneNumber.close();
+        }
+    }
+}
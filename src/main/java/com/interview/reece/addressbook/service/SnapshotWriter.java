@@ -0,0 +1,84 @@
+package com.interview.reece.addressbook.service;
+
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+
+/**
+ * Writes a database snapshot. The file starts with {@link #MAGIC} and {@link #VERSION}, followed by one record per
+ * address book then one record per customer with its phone numbers, each record starting with its tag byte, and ends
+ * with {@link #END}. Numbers are big endian, strings are an unsigned short byte length followed by UTF-8 bytes.
+ */
+public class SnapshotWriter implements Closeable {
+
+    static final int MAGIC = 0x41425350;
+
+    static final int VERSION = 1;
+
+    static final byte END = 0;
+
+    static final byte ADDRESS_BOOK = 1;
+
+    static final byte CUSTOMER = 2;
+
+    private final DataOutputStream output;
+
+    private long addressBooks;
+
+    private long customers;
+
+    private long phoneNumbers;
+
+    public SnapshotWriter(final OutputStream output) throws IOException {
+        this.output = new DataOutputStream(output);
+        this.output.writeInt(MAGIC);
+        this.output.writeInt(VERSION);
+    }
+
+    public void writeAddressBook(final long pk, final String title) throws IOException {
+        output.writeByte(ADDRESS_BOOK);
+        output.writeLong(pk);
+        writeString(title);
+        addressBooks++;
+    }
+
+    public void writeCustomer(final long pk, final long addressBookId, final String name, final Collection<String> customerPhoneNumbers) throws IOException {
+        output.writeByte(CUSTOMER);
+        output.writeLong(pk);
+        output.writeLong(addressBookId);
+        writeString(name);
+        output.writeInt(customerPhoneNumbers.size());
+        for (final String phoneNumber : customerPhoneNumbers) {
+            writeString(phoneNumber);
+        }
+        customers++;
+        phoneNumbers += customerPhoneNumbers.size();
+    }
+
+    private void writeString(final String value) throws IOException {
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeShort(bytes.length);
+        output.write(bytes);
+    }
+
+    public long getAddressBooks() {
+        return addressBooks;
+    }
+
+    public long getCustomers() {
+        return customers;
+    }
+
+    public long getPhoneNumbers() {
+        return phoneNumbers;
+    }
+
+    @Override
+    public void close() throws IOException {
+        output.writeByte(END);
+        output.close();
+    }
+}
@@ -0,0 +1,126 @@
+package com.interview.reece.addressbook.service;
+
+import com.interview.reece.addressbook.aggregate.CustomerNamePhoneNumber;
+import com.interview.reece.addressbook.aggregate.MergeCustomer;
+import com.interview.reece.addressbook.aggregate.UniqueCustomer;
+import com.interview.reece.addressbook.index.PhoneNumbers;
+import com.interview.reece.addressbook.repository.CustomerRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Merges customers by name from the database until the {@link com.interview.reece.addressbook.index.UniqueCustomerIndex}
+ * is loaded. Rows of name and phone number are streamed ordered by name and merged in a single pass, normalizing
+ * the phone numbers so formatting variants of the same number are kept once. Unlike an aggregate query this works
+ * on any database, and reading stops once the requested page is complete.
+ */
+@Service
+@Timed(value = "addressbook.service", histogram = true)
+public class UniqueCustomerMerger {
+
+    private final CustomerRepository customerRepository;
+
+    public UniqueCustomerMerger(CustomerRepository customerRepository) {
+        this.customerRepository = customerRepository;
+    }
+
+    /**
+     * Returns a page of unique customers ordered by name
+     *
+     * @param pageable the page to return, the sort is always by name
+     * @return page of customers
+     */
+    @Transactional(readOnly = true)
+    public Page<MergeCustomer> findAll(final Pageable pageable) {
+        final List<MergeCustomer> customers;
+        try (Stream<CustomerNamePhoneNumber> rows = customerRepository.streamNamesWithPhoneNumbers()) {
+            customers = merge(rows.iterator(), pageable.getOffset(), pageable.getPageSize());
+        }
+        return PageableExecutionUtils.getPage(customers, pageable, customerRepository::countDistinctNameWithPhoneNumbers);
+    }
+
+    /**
+     * Returns a page of unique customers ordered by name, without the total count
+     *
+     * @param pageable the page to return, the sort is always by name
+     * @return slice of customers
+     */
+    @Transactional(readOnly = true)
+    public Slice<MergeCustomer> findSlice(final Pageable pageable) {
+        final List<MergeCustomer> customers;
+        try (Stream<CustomerNamePhoneNumber> rows = customerRepository.streamNamesWithPhoneNumbers()) {
+            customers = merge(rows.iterator(), pageable.getOffset(), pageable.getPageSize() + 1);
+        }
+        final boolean hasNext = customers.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? customers.subList(0, pageable.getPageSize()) : customers, pageable, hasNext);
+    }
+
+    /**
+     * Returns unique customers whose name sorts after the given name
+     *
+     * @param after the last name of the previous page, empty for the first page
+     * @param limit the maximum number of customers to return
+     * @return list of customers ordered by name
+     */
+    @Transactional(readOnly = true)
+    public List<MergeCustomer> findAfter(final String after, final int limit) {
+        try (Stream<CustomerNamePhoneNumber> rows = customerRepository.streamNamesWithPhoneNumbersAfter(after)) {
+            return merge(rows.iterator(), 0, limit);
+        }
+    }
+
+    /**
+     * Merges consecutive rows with the same name. The phone numbers of skipped names are not normalized and the
+     * rows after the last returned name are not read.
+     *
+     * @param rows  the rows ordered by name
+     * @param skip  the number of names to skip
+     * @param limit the maximum number of customers to return
+     * @return the merged customers ordered by name
+     */
+    public static List<MergeCustomer> merge(final Iterator<CustomerNamePhoneNumber> rows, final long skip, final int limit) {
+        final List<MergeCustomer> customers = new ArrayList<>(Math.max(0, Math.min(limit, 64)));
+        if (limit <= 0) {
+            return customers;
+        }
+        // the phone numbers of the current name, reused from one name to the next
+        final Set<String> phoneNumbers = new HashSet<>();
+        String name = null;
+        long names = 0;
+        while (rows.hasNext()) {
+            final CustomerNamePhoneNumber row = rows.next();
+            if (names == 0 || !Objects.equals(name, row.name())) {
+                if (names > skip) {
+                    customers.add(new UniqueCustomer(name, Set.copyOf(phoneNumbers)));
+                    if (customers.size() == limit) {
+                        return customers;
+                    }
+                    phoneNumbers.clear();
+                }
+                name = row.name();
+                names++;
+            }
+            if (names > skip) {
+                phoneNumbers.add(PhoneNumbers.normalize(row.phoneNumber()));
+            }
+        }
+        if (names > skip) {
+            customers.add(new UniqueCustomer(name, Set.copyOf(phoneNumbers)));
+        }
+        return customers;
+    }
+}
@@ -1,14 +1,22 @@
 package com.interview.reece.addressbook.validation;
 
+import com.interview.reece.addressbook.dto.CustomerDTO;
 import com.interview.reece.addressbook.exception.AddressBookNotFoundException;
 import com.interview.reece.addressbook.exception.AddressBookRuntimeException;
 import com.interview.reece.addressbook.exception.CustomerNotFoundException;
+import com.interview.reece.addressbook.exception.IndexNotReadyException;
+import com.interview.reece.addressbook.exception.InvalidCursorException;
+import com.interview.reece.addressbook.exception.InvalidPageSizeException;
+import com.interview.reece.addressbook.exception.WriteQueueFullException;
+import com.interview.reece.addressbook.exception.WriteTimeoutException;
 import org.springframework.context.support.DefaultMessageSourceResolvable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
 
 import java.util.Collections;
 import java.util.List;
@@ -24,6 +32,31 @@ public class AddressBookExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of(ERRORS_KEY, Collections.singletonList(addressBookRuntimeException.getMessage())));
     }
 
+    @ExceptionHandler(exception = {InvalidCursorException.class, InvalidPageSizeException.class})
+    public ResponseEntity<Map<String, List<String>>> handleBadRequestException(final AddressBookRuntimeException addressBookRuntimeException) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of(ERRORS_KEY, Collections.singletonList(addressBookRuntimeException.getMessage())));
+    }
+
+    @ExceptionHandler(exception = WriteQueueFullException.class)
+    public ResponseEntity<Map<String, List<String>>> handleTooManyRequestsException(final AddressBookRuntimeException addressBookRuntimeException) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(Map.of(ERRORS_KEY, Collections.singletonList(addressBookRuntimeException.getMessage())));
+    }
+
+    @ExceptionHandler(exception = IndexNotReadyException.class)
+    public ResponseEntity<Map<String, List<String>>> handleServiceUnavailableException(final AddressBookRuntimeException addressBookRuntimeException) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(Map.of(ERRORS_KEY, Collections.singletonList(addressBookRuntimeException.getMessage())));
+    }
+
+    @ExceptionHandler(exception = WriteTimeoutException.class)
+    public ResponseEntity<CustomerDTO> handleWriteTimeoutException(final WriteTimeoutException writeTimeoutException) {
+        // the customer is still queued and will be written, retrying would create it twice
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(writeTimeoutException.getCustomer());
+    }
+
     @ExceptionHandler(exception = MethodArgumentNotValidException.class)
     public ResponseEntity<Map<String, List<String>>> handleInvalidRequestException(final MethodArgumentNotValidException methodArgumentNotValidException) {
         final List<String> errors = methodArgumentNotValidException.getBindingResult().getFieldErrors().stream()
@@ -32,4 +65,12 @@ public class AddressBookExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of(ERRORS_KEY, errors));
     }
 
+    @ExceptionHandler(exception = WebExchangeBindException.class)
+    public ResponseEntity<Map<String, List<String>>> handleInvalidReactiveRequestException(final WebExchangeBindException webExchangeBindException) {
+        final List<String> errors = webExchangeBindException.getFieldErrors().stream()
+                .map(DefaultMessageSourceResolvable::getDefaultMessage)
+                .collect(Collectors.toList());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of(ERRORS_KEY, errors));
+    }
+
 }
@@ -0,0 +1,31 @@
+-- the sequence increment is the block of ids Hibernate reserves per call, see addressbook.id.allocation_size
+CREATE SEQUENCE address_books_seq START WITH 1 INCREMENT BY ${id_allocation_size};
+CREATE SEQUENCE customers_seq START WITH 1 INCREMENT BY ${id_allocation_size};
+
+CREATE TABLE address_books (
+    pk    BIGINT       NOT NULL,
+    title VARCHAR(255) NOT NULL,
+    CONSTRAINT pk_address_books PRIMARY KEY (pk)
+);
+
+CREATE TABLE customers (
+    pk              BIGINT       NOT NULL,
+    name            VARCHAR(255) NOT NULL,
+    address_book_id BIGINT       NOT NULL,
+    CONSTRAINT pk_customers PRIMARY KEY (pk),
+    CONSTRAINT fk_customers_address_book FOREIGN KEY (address_book_id) REFERENCES address_books (pk)
+);
+
+-- customers of a book in id order, for listing, paging by id and the foreign key
+CREATE INDEX idx_customers_address_book_pk ON customers (address_book_id, pk);
+
+-- unique customers are grouped and paged by name, the pk makes the join to the phone numbers index only
+CREATE INDEX idx_customers_name_pk ON customers (name, pk);
+
+-- the primary key leads with customer_pk so joining from customers reads the phone numbers from the index alone
+CREATE TABLE customer_phone_numbers (
+    customer_pk   BIGINT      NOT NULL,
+    phone_numbers VARCHAR(50) NOT NULL,
+    CONSTRAINT pk_customer_phone_numbers PRIMARY KEY (customer_pk, phone_numbers),
+    CONSTRAINT fk_customer_phone_numbers_customer FOREIGN KEY (customer_pk) REFERENCES customers (pk)
+);
@@ -0,0 +1,70 @@
+package com.interview.reece.addressbook;
+
+import com.interview.reece.addressbook.cache.AddressBookList;
+import com.interview.reece.addressbook.cache.AddressBookListCache;
+import com.interview.reece.addressbook.dto.AddressBookDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag(TestUtil.UNIT_TEST)
+public class AddressBookListCacheTest {
+
+    private AddressBookListCache addressBookListCache;
+
+    private AtomicInteger loads;
+
+    @BeforeEach
+    public void prepare() {
+        addressBookListCache = new AddressBookListCache(null);
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    public void testGetLoadsOnce() {
+        final AddressBookList first = addressBookListCache.get(loader("book1"));
+        final AddressBookList second = addressBookListCache.get(loader("book2"));
+
+        assertEquals(1, loads.get());
+        assertSame(first, second);
+        assertEquals("book1", second.addressBooks().get(0).getTitle());
+        assertThrows(UnsupportedOperationException.class, () -> second.addressBooks().add(new AddressBookDTO()));
+    }
+
+    @Test
+    public void testGetReloadsAfterInvalidate() {
+        final AddressBookList first = addressBookListCache.get(loader("book1"));
+        addressBookListCache.invalidate();
+        final AddressBookList second = addressBookListCache.get(loader("book2"));
+
+        assertEquals(2, loads.get());
+        assertNotEquals(first.version(), second.version());
+        assertEquals("book2", second.addressBooks().get(0).getTitle());
+    }
+
+    @Test
+    public void testGetDoesNotCacheListLoadedDuringInvalidate() {
+        final AddressBookList stale = addressBookListCache.get(() -> {
+            addressBookListCache.invalidate();
+            return loader("book1").get();
+        });
+        final AddressBookList fresh = addressBookListCache.get(loader("book2"));
+
+        assertEquals("book1", stale.addressBooks().get(0).getTitle());
+        assertEquals("book2", fresh.addressBooks().get(0).getTitle());
+        assertNotEquals(stale.version(), fresh.version());
+    }
+
+    private Supplier<List<AddressBookDTO>> loader(final String title) {
+        return () -> {
+            loads.incrementAndGet();
+            return List.of(new AddressBookDTO(loads.get(), title));
+        };
+    }
+}
@@ -1,18 +1,42 @@
 package com.interview.reece.addressbook;
 
+import com.interview.reece.addressbook.aggregate.AddressBookSummary;
+import com.interview.reece.addressbook.aggregate.CustomerPhoneNumber;
+import com.interview.reece.addressbook.aggregate.CustomerSnapshot;
+import com.interview.reece.addressbook.aggregate.CustomerSummary;
 import com.interview.reece.addressbook.aggregate.MergeCustomer;
+import com.interview.reece.addressbook.aggregate.ResolvedCustomer;
+import com.interview.reece.addressbook.cache.AddressBookList;
+import com.interview.reece.addressbook.cache.AddressBookListCache;
 import com.interview.reece.addressbook.dto.AddressBookDTO;
 import com.interview.reece.addressbook.dto.CustomerPageResult;
+import com.interview.reece.addressbook.dto.PageCursor;
+import com.interview.reece.addressbook.dto.PagedResult;
+import com.interview.reece.addressbook.dto.PhoneNumberOwnerDTO;
+import com.interview.reece.addressbook.dto.UniqueCustomerStrategy;
 import com.interview.reece.addressbook.dto.request.AddressBookRequestDTO;
 import com.interview.reece.addressbook.dto.CustomerDTO;
+import com.interview.reece.addressbook.dto.request.CustomerPatchRequestDTO;
 import com.interview.reece.addressbook.dto.request.CustomerRequestDTO;
 import com.interview.reece.addressbook.exception.AddressBookNotFoundException;
+import com.interview.reece.addressbook.exception.CustomerNotFoundException;
+import com.interview.reece.addressbook.exception.IndexNotReadyException;
+import com.interview.reece.addressbook.exception.InvalidCursorException;
+import com.interview.reece.addressbook.exception.InvalidPageSizeException;
+import com.interview.reece.addressbook.exception.WriteTimeoutException;
+import com.interview.reece.addressbook.index.CustomerIndexMaintainer;
+import com.interview.reece.addressbook.index.CustomerSearchIndex;
+import com.interview.reece.addressbook.index.PhoneNumberIndex;
+import com.interview.reece.addressbook.index.ResolvedCustomerIndex;
+import com.interview.reece.addressbook.index.UniqueCustomerIndex;
 import com.interview.reece.addressbook.model.AddressBook;
 import com.interview.reece.addressbook.model.BaseEntity;
 import com.interview.reece.addressbook.model.Customer;
 import com.interview.reece.addressbook.repository.AddressBookRepository;
 import com.interview.reece.addressbook.repository.CustomerRepository;
 import com.interview.reece.addressbook.service.AddressBookService;
+import com.interview.reece.addressbook.service.CustomerWriteBehindQueue;
+import com.interview.reece.addressbook.service.UniqueCustomerMerger;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
@@ -22,17 +46,33 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.stubbing.Answer;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static com.interview.reece.addressbook.TestUtil.*;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 
 @ExtendWith(MockitoExtension.class)
 @Tag(TestUtil.UNIT_TEST)
@@ -48,6 +88,30 @@ public class AddressBookServiceTest {
     @Mock
     private AddressBookRepository addressBookRepository;
 
+    @Mock
+    private UniqueCustomerIndex uniqueCustomerIndex;
+
+    @Mock
+    private CustomerSearchIndex customerSearchIndex;
+
+    @Mock
+    private PhoneNumberIndex phoneNumberIndex;
+
+    @Mock
+    private AddressBookListCache addressBookListCache;
+
+    @Mock
+    private UniqueCustomerMerger uniqueCustomerMerger;
+
+    @Mock
+    private ResolvedCustomerIndex resolvedCustomerIndex;
+
+    @Mock
+    private CustomerIndexMaintainer customerIndexMaintainer;
+
+    @Mock
+    private CustomerWriteBehindQueue customerWriteBehindQueue;
+
 
     @Test
     public void testCreateAddressBookGivenValidInput() {
@@ -67,12 +131,11 @@ public class AddressBookServiceTest {
 
     @Test
     public void testFindAllAddressBooks() {
-        final AddressBook addressBook1 = mock(AddressBook.class);
-        final AddressBook addressBook2 = mock(AddressBook.class);
+        final AddressBookSummary addressBook1 = createAddressBookSummary(1L, "book1");
+        final AddressBookSummary addressBook2 = createAddressBookSummary(2L, "book2");
 
-        given(addressBook1.getTitle()).willReturn("book1");
-        given(addressBook2.getTitle()).willReturn("book2");
-        given(addressBookRepository.findAll()).willReturn(Arrays.asList(addressBook1, addressBook2));
+        given(addressBookRepository.findAllSummaries()).willReturn(Arrays.asList(addressBook1, addressBook2));
+        given(addressBookListCache.get(any())).willAnswer(invocation -> new AddressBookList(1, invocation.<Supplier<List<AddressBookDTO>>>getArgument(0).get()));
         final List<AddressBookDTO> result = addressBookService.getAllAddressBooks();
 
         assertNotNull(result);
@@ -95,12 +158,11 @@ public class AddressBookServiceTest {
         long addressBookId = 1;
 
         final AddressBook existingAddressBook = mock(AddressBook.class);
-        final Customer customer1 = mock(Customer.class);
-        final Customer customer2 = mock(Customer.class);
 
-        given(customer1.getName()).willReturn("customer1Name");
-        given(customer2.getName()).willReturn("customer2Name");
-        given(existingAddressBook.getCustomers()).willReturn(Set.of(customer1, customer2));
+        given(customerRepository.streamByAddressBookPk(addressBookId)).willReturn(Stream.of(
+                createCustomerPhoneNumber(10L, "customer1Name", addressBookId, "01"),
+                createCustomerPhoneNumber(10L, "customer1Name", addressBookId, "02"),
+                createCustomerPhoneNumber(11L, "customer2Name", addressBookId, null)));
         given(addressBookRepository.findById(addressBookId)).willReturn(Optional.of(existingAddressBook));
         final List<CustomerDTO> customers = addressBookService.getAllCustomerByAddressBookId(addressBookId);
 
@@ -108,8 +170,50 @@ public class AddressBookServiceTest {
         assertFalse(customers.isEmpty());
         assertEquals(2, customers.size());
 
-        assertContains(customers, c -> customer1.getName().equals(c.getName()));
-        assertContains(customers, c -> customer2.getName().equals(c.getName()));
+        assertContains(customers, c -> "customer1Name".equals(c.getName()) && c.getPhoneNumbers().equals(Set.of("01", "02")));
+        assertContains(customers, c -> "customer2Name".equals(c.getName()) && c.getPhoneNumbers().isEmpty());
+    }
+
+    @Test
+    public void testGetCustomersPageByAddressBook() {
+        long addressBookId = 1;
+        given(addressBookRepository.findById(addressBookId)).willReturn(Optional.of(mock(AddressBook.class)));
+        given(customerRepository.findSummariesByAddressBookPk(eq(addressBookId), any(Pageable.class))).willAnswer(inv -> new PageImpl<>(
+                List.of(createCustomerSummary(10L, "customer1Name"), createCustomerSummary(11L, "customer2Name")), inv.getArgument(1, Pageable.class), 5));
+        given(customerRepository.findPhoneNumbersByPkIn(Set.of(10L, 11L))).willReturn(List.of(
+                createCustomerPhoneNumber(10L, "customer1Name", addressBookId, "01"),
+                createCustomerPhoneNumber(11L, "customer2Name", addressBookId, "02")));
+
+        final CustomerPageResult customerPageResult = addressBookService.getCustomersByAddressBookId(addressBookId, 0, 2);
+
+        assertEquals(5, customerPageResult.getTotalSize());
+        assertEquals(3, customerPageResult.getTotalPages());
+        assertEquals(2, customerPageResult.getCurrentPageSize());
+        assertEquals(11L, PageCursor.decodeId(customerPageResult.getNextCursor()));
+        assertEquals("customer1Name", customerPageResult.getResults().get(0).getName());
+        assertEquals(Set.of("02"), customerPageResult.getResults().get(1).getPhoneNumbers());
+    }
+
+    @Test
+    public void testGetCustomersPageByAddressBookAfterCursor() {
+        long addressBookId = 1;
+        given(addressBookRepository.findById(addressBookId)).willReturn(Optional.of(mock(AddressBook.class)));
+        given(customerRepository.findSummariesByAddressBookPkAndPkGreaterThanOrderByPk(addressBookId, 9L, Limit.of(3))).willReturn(List.of(createCustomerSummary(10L, "customer1Name")));
+        given(customerRepository.findPhoneNumbersByPkIn(Set.of(10L))).willReturn(List.of(createCustomerPhoneNumber(10L, "customer1Name", addressBookId, "01")));
+
+        final CustomerPageResult customerPageResult = addressBookService.getCustomersByAddressBookIdAfter(addressBookId, PageCursor.encode(9L), 2);
+
+        assertEquals(1, customerPageResult.getCurrentPageSize());
+        assertEquals(PagedResult.UNKNOWN_TOTAL, customerPageResult.getTotalSize());
+        assertFalse(customerPageResult.isHasNext());
+        assertNull(customerPageResult.getNextCursor());
+        assertEquals(Set.of("01"), customerPageResult.getResults().get(0).getPhoneNumbers());
+    }
+
+    @Test
+    public void testGetCustomersPageByAddressBookNotFound() {
+        given(addressBookRepository.findById(any())).willReturn(Optional.empty());
+        assertThrowsExactly(AddressBookNotFoundException.class, () -> addressBookService.getCustomersByAddressBookId(1, 0, 2));
     }
 
     @Test
@@ -140,6 +244,78 @@ public class AddressBookServiceTest {
 
     }
 
+    @Test
+    public void testCreateCustomerQueuedWithWriteBehind() {
+        given(addressBookRepository.findById(1L)).willAnswer(mockFindAddressBookAnswer());
+        given(customerWriteBehindQueue.isEnabled()).willReturn(true);
+        final CompletableFuture<Void> committed = new CompletableFuture<>();
+        given(customerWriteBehindQueue.enqueue(1L, "John", Set.of("01")))
+                .willReturn(new CustomerWriteBehindQueue.QueuedCustomer(7L, 1L, "John", Set.of("01"), committed));
+
+        final CustomerDTO customer = addressBookService.createCustomer(1L, new CustomerRequestDTO("John", Set.of("01")), false);
+
+        assertEquals(7L, customer.getId());
+        assertEquals(Set.of("01"), customer.getPhoneNumbers());
+        verify(customerRepository, never()).save(any());
+    }
+
+    @Test
+    public void testCreateCustomerWaitsForQueuedCommitFailure() {
+        given(addressBookRepository.findById(1L)).willAnswer(mockFindAddressBookAnswer());
+        given(customerWriteBehindQueue.isEnabled()).willReturn(true);
+        final CompletableFuture<Void> committed = CompletableFuture.failedFuture(new IllegalStateException("not written"));
+        given(customerWriteBehindQueue.enqueue(1L, "John", Set.of()))
+                .willReturn(new CustomerWriteBehindQueue.QueuedCustomer(7L, 1L, "John", Set.of(), committed));
+
+        assertThrowsExactly(IllegalStateException.class, () -> addressBookService.createCustomer(1L, new CustomerRequestDTO("John", Set.of())));
+    }
+
+    @Test
+    public void testCreateCustomerWaitsForQueuedCommitTimeout() {
+        given(addressBookRepository.findById(1L)).willAnswer(mockFindAddressBookAnswer());
+        given(customerWriteBehindQueue.isEnabled()).willReturn(true);
+        final CompletableFuture<Void> committed = CompletableFuture.failedFuture(new TimeoutException());
+        given(customerWriteBehindQueue.enqueue(1L, "John", Set.of()))
+                .willReturn(new CustomerWriteBehindQueue.QueuedCustomer(7L, 1L, "John", Set.of(), committed));
+
+        final WriteTimeoutException exception = assertThrowsExactly(WriteTimeoutException.class, () -> addressBookService.createCustomer(1L, new CustomerRequestDTO("John", Set.of())));
+        assertEquals(7L, exception.getCustomer().getId());
+        assertEquals("John", exception.getCustomer().getName());
+    }
+
+    @Test
+    public void testUpdateCustomerChangesPhoneNumbersInPlace() {
+        final Customer customer = createCustomer(1L, "John", "01", "02");
+        final Set<String> phoneNumbers = customer.getPhoneNumbers();
+        given(customerRepository.findById(1L)).willReturn(Optional.of(customer));
+
+        final CustomerDTO updated = inTransaction(() -> addressBookService.updateCustomer(1L, new CustomerRequestDTO("Johnny", Set.of("02", "03"))));
+
+        assertEquals("Johnny", updated.getName());
+        assertSame(phoneNumbers, customer.getPhoneNumbers());
+        assertEquals(Set.of("02", "03"), phoneNumbers);
+        verify(customerIndexMaintainer).refresh(1L);
+    }
+
+    @Test
+    public void testPatchCustomerKeepsFieldsLeftOut() {
+        final Customer customer = createCustomer(1L, "John", "01", "02");
+        given(customerRepository.findById(1L)).willReturn(Optional.of(customer));
+
+        final CustomerDTO patched = inTransaction(() -> addressBookService.patchCustomer(1L, new CustomerPatchRequestDTO(null, Set.of("01"))));
+
+        assertEquals("John", patched.getName());
+        assertEquals(Set.of("01"), patched.getPhoneNumbers());
+    }
+
+    @Test
+    public void testUpdateCustomerGivenNotExisting() {
+        given(customerRepository.findById(1L)).willReturn(Optional.empty());
+
+        assertThrowsExactly(CustomerNotFoundException.class, () -> addressBookService.updateCustomer(1L, new CustomerRequestDTO("John", Set.of())));
+        verify(customerIndexMaintainer, never()).add(any());
+    }
+
     @Test
     public void testGetAllUniqueCustomer() {
         int page = 0;
@@ -150,7 +326,7 @@ public class AddressBookServiceTest {
         given(pageResponse.stream()).willReturn(mergeCustomers.stream());
         given(pageResponse.getTotalElements()).willReturn((long) mergeCustomers.size());
         given(pageResponse.getTotalPages()).willReturn(1);
-        given(customerRepository.findDistinctName(any())).willReturn(pageResponse);
+        given(uniqueCustomerMerger.findAll(any())).willReturn(pageResponse);
 
         final CustomerPageResult customerPageResult = addressBookService.getAllUniqueCustomers(page, pageSize);
 
@@ -165,6 +341,145 @@ public class AddressBookServiceTest {
         assertContains(customerResponse,c->"Milla".equals(c.getName()) && c.getPhoneNumbers().contains("323"));
     }
 
+    @Test
+    public void testGetAllUniqueCustomerGivenIndexReady() {
+        final List<MergeCustomer> mergeCustomers = List.of(createMergeCustomer("Anna", Set.of("345")), createMergeCustomer("Jose", Set.of("123")));
+        given(uniqueCustomerIndex.isReady()).willReturn(true);
+        given(uniqueCustomerIndex.findAll(any())).willAnswer(inv -> new PageImpl<>(mergeCustomers, inv.getArgument(0, Pageable.class), 3));
+
+        final CustomerPageResult customerPageResult = addressBookService.getAllUniqueCustomers(0, 2);
+
+        assertEquals(3, customerPageResult.getTotalSize());
+        assertEquals(2, customerPageResult.getTotalPages());
+        assertEquals(2, customerPageResult.getCurrentPageSize());
+        assertEquals("Jose", PageCursor.decode(customerPageResult.getNextCursor()));
+        assertContains(customerPageResult.getResults(), c -> "Anna".equals(c.getName()) && c.getPhoneNumbers().contains("345"));
+        verify(uniqueCustomerMerger, never()).findAll(any());
+    }
+
+    @Test
+    public void testGetAllUniqueCustomerWithoutTotals() {
+        final List<MergeCustomer> mergeCustomers = List.of(createMergeCustomer("Anna", Set.of("345")), createMergeCustomer("Jose", Set.of("123")));
+        given(uniqueCustomerMerger.findSlice(any())).willAnswer(inv -> new SliceImpl<>(mergeCustomers, inv.getArgument(0, Pageable.class), true));
+
+        final CustomerPageResult customerPageResult = addressBookService.getAllUniqueCustomers(0, 2, false);
+
+        assertEquals(PagedResult.UNKNOWN_TOTAL, customerPageResult.getTotalSize());
+        assertEquals(PagedResult.UNKNOWN_TOTAL, customerPageResult.getTotalPages());
+        assertEquals(2, customerPageResult.getCurrentPageSize());
+        assertTrue(customerPageResult.isHasNext());
+        assertEquals("Jose", PageCursor.decode(customerPageResult.getNextCursor()));
+        verify(uniqueCustomerMerger, never()).findAll(any());
+    }
+
+    @Test
+    public void testGetAllUniqueCustomerAfterCursor() {
+        final int pageSize = 2;
+        final String cursor = PageCursor.encode("Anna");
+
+        final List<MergeCustomer> mergeCustomers = List.of(createMergeCustomer("Jose", Set.of("123")), createMergeCustomer("Milla", Set.of("323")), createMergeCustomer("Zoe", Set.of("345")));
+        given(uniqueCustomerMerger.findAfter("Anna", pageSize + 1)).willReturn(mergeCustomers);
+
+        final CustomerPageResult customerPageResult = addressBookService.getAllUniqueCustomersAfter(cursor, pageSize);
+
+        assertNotNull(customerPageResult);
+        assertEquals(pageSize, customerPageResult.getRequestedPageSize());
+        assertEquals(pageSize, customerPageResult.getCurrentPageSize());
+        assertEquals(PagedResult.UNKNOWN_TOTAL, customerPageResult.getTotalSize());
+        assertEquals(PagedResult.UNKNOWN_TOTAL, customerPageResult.getTotalPages());
+        assertEquals("Milla", PageCursor.decode(customerPageResult.getNextCursor()));
+
+        final List<CustomerDTO> customerResponse = customerPageResult.getResults();
+        assertEquals(pageSize, customerResponse.size());
+        assertEquals("Jose", customerResponse.get(0).getName());
+        assertEquals("Milla", customerResponse.get(1).getName());
+    }
+
+    @Test
+    public void testGetAllUniqueCustomerAfterCursorGivenLastPage() {
+        final int pageSize = 2;
+        given(uniqueCustomerMerger.findAfter("", pageSize + 1)).willReturn(List.of(createMergeCustomer("Jose", Set.of("123"))));
+
+        final CustomerPageResult customerPageResult = addressBookService.getAllUniqueCustomersAfter("", pageSize);
+
+        assertEquals(1, customerPageResult.getCurrentPageSize());
+        assertNull(customerPageResult.getNextCursor());
+    }
+
+    @Test
+    public void testGetAllUniqueCustomerResolvedByNameAndPhone() {
+        final List<ResolvedCustomer> resolvedCustomers = List.of(new ResolvedCustomer("anna\u00001", "Anna", Set.of("345")), new ResolvedCustomer("anna\u00002", "Anna", Set.of("346")));
+        given(resolvedCustomerIndex.isReady()).willReturn(true);
+        given(resolvedCustomerIndex.findAll(any())).willAnswer(inv -> new PageImpl<>(resolvedCustomers, inv.getArgument(0, Pageable.class), 3));
+
+        final CustomerPageResult customerPageResult = addressBookService.getAllUniqueCustomers(0, 2, true, UniqueCustomerStrategy.NAME_AND_PHONE);
+
+        assertEquals(3, customerPageResult.getTotalSize());
+        assertEquals(2, customerPageResult.getCurrentPageSize());
+        assertEquals("anna\u00002", PageCursor.decode(customerPageResult.getNextCursor()));
+        verify(uniqueCustomerIndex, never()).findAll(any());
+    }
+
+    @Test
+    public void testGetAllUniqueCustomerResolvedAfterCursor() {
+        given(resolvedCustomerIndex.isReady()).willReturn(true);
+        given(resolvedCustomerIndex.findAfter("anna\u00001", 3)).willReturn(List.of(new ResolvedCustomer("anna\u00002", "Anna", Set.of("346"))));
+
+        final CustomerPageResult customerPageResult = addressBookService.getAllUniqueCustomersAfter(PageCursor.encode("anna\u00001"), 2, UniqueCustomerStrategy.NAME_AND_PHONE);
+
+        assertEquals(1, customerPageResult.getCurrentPageSize());
+        assertEquals(Set.of("346"), customerPageResult.getResults().get(0).getPhoneNumbers());
+        assertNull(customerPageResult.getNextCursor());
+    }
+
+    @Test
+    public void testGetAllUniqueCustomerResolvedGivenIndexNotReady() {
+        assertThrowsExactly(IndexNotReadyException.class, () -> addressBookService.getAllUniqueCustomers(0, 2, true, UniqueCustomerStrategy.NAME_AND_PHONE));
+        verifyNoInteractions(uniqueCustomerMerger);
+    }
+
+    @Test
+    public void testGetAllUniqueCustomerAfterInvalidCursor() {
+        assertThrowsExactly(InvalidCursorException.class, () -> addressBookService.getAllUniqueCustomersAfter("not a cursor", 2));
+    }
+
+    @Test
+    public void testGetCustomersByAddressBookIdGivenInvalidPageSize() {
+        assertThrowsExactly(InvalidPageSizeException.class, () -> addressBookService.getCustomersByAddressBookIdAfter(1L, "", 0));
+        assertThrowsExactly(InvalidPageSizeException.class, () -> addressBookService.getCustomersByAddressBookIdAfter(1L, "", -1));
+        assertThrowsExactly(InvalidPageSizeException.class, () -> addressBookService.getCustomersByAddressBookId(1L, 0, 0));
+        verify(customerRepository, never()).findSummariesByAddressBookPkAndPkGreaterThanOrderByPk(anyLong(), anyLong(), any());
+    }
+
+    @Test
+    public void testGetAllUniqueCustomerGivenInvalidPageSize() {
+        assertThrowsExactly(InvalidPageSizeException.class, () -> addressBookService.getAllUniqueCustomersAfter("", 0));
+        assertThrowsExactly(InvalidPageSizeException.class, () -> addressBookService.getAllUniqueCustomersAfter("", Integer.MAX_VALUE));
+        assertThrowsExactly(InvalidPageSizeException.class, () -> addressBookService.getAllUniqueCustomers(0, -1));
+    }
+
+    private static Customer createCustomer(final long pk, final String name, final String... phoneNumbers) {
+        final AddressBook addressBook = new AddressBook("Address Book 1");
+        addressBook.setPk(1L);
+        final Customer customer = new Customer(name, new HashSet<>(Set.of(phoneNumbers)), addressBook);
+        customer.setPk(pk);
+        return customer;
+    }
+
+    /**
+     * Runs the call with transaction synchronization active and commits it, as the transactional proxy would
+     */
+    private static <T> T inTransaction(final Supplier<T> call) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            final T result = call.get();
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            return result;
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
     private static <T extends BaseEntity> Answer<T> mockSaveAnswer(long pk) {
         return inv -> {
             final BaseEntity base = inv.getArgument(0, BaseEntity.class);
@@ -173,6 +488,82 @@ public class AddressBookServiceTest {
         };
     }
 
+    @Test
+    public void testSearchCustomersGivenIndexReady() {
+        given(customerSearchIndex.isReady()).willReturn(true);
+        given(customerSearchIndex.search("an", 10)).willReturn(List.of(new CustomerSnapshot(1, "Anna", 1, Set.of("345"))));
+
+        final List<CustomerDTO> customers = addressBookService.searchCustomers("an", 10);
+
+        assertEquals(1, customers.size());
+        assertEquals(1, customers.get(0).getId());
+        assertEquals("Anna", customers.get(0).getName());
+        verify(customerRepository, never()).findByNameStartingWithIgnoreCaseOrderByName(any(), any());
+    }
+
+    @Test
+    public void testSearchCustomersGivenIndexNotReady() {
+        final Customer anna = new Customer("Anna", Set.of("345"));
+        anna.setPk(1L);
+        final Customer andy = new Customer("Andy", Set.of("346"));
+        andy.setPk(2L);
+        given(customerRepository.findByPhoneNumber("an")).willReturn(List.of());
+        given(customerRepository.findByNameStartingWithIgnoreCaseOrderByName("an", Limit.of(1))).willReturn(List.of(anna, andy));
+
+        final List<CustomerDTO> customers = addressBookService.searchCustomers(" an ", 1);
+
+        assertEquals(1, customers.size());
+        assertEquals("Anna", customers.get(0).getName());
+    }
+
+    @Test
+    public void testSearchCustomersLimitIsBounded() {
+        given(customerRepository.findByPhoneNumber("an")).willReturn(List.of());
+
+        addressBookService.searchCustomers("an", 0);
+        addressBookService.searchCustomers("an", -5);
+        addressBookService.searchCustomers("an", 1_000_000);
+
+        verify(customerRepository, times(2)).findByNameStartingWithIgnoreCaseOrderByName("an", Limit.of(1));
+        verify(customerRepository).findByNameStartingWithIgnoreCaseOrderByName("an", Limit.of(AddressBookService.MAX_SEARCH_LIMIT));
+    }
+
+    @Test
+    public void testSearchCustomersGivenBlankQuery() {
+        assertTrue(addressBookService.searchCustomers(" ", 10).isEmpty());
+        verify(customerSearchIndex, never()).search(any(), eq(10));
+    }
+
+    @Test
+    public void testGetPhoneNumberOwnersGivenIndexReady() {
+        final AddressBook addressBook = new AddressBook("book1");
+        addressBook.setPk(1L);
+        final Customer anna = new Customer("Anna", Set.of("(02) 9999 0001"), addressBook);
+        anna.setPk(1L);
+        final Customer beth = new Customer("Beth", Set.of("0400 000 002"), addressBook);
+        beth.setPk(2L);
+        given(phoneNumberIndex.isReady()).willReturn(true);
+        given(phoneNumberIndex.findCustomerIds("0299990001")).willReturn(new long[]{1, 2});
+        given(customerRepository.findById(1L)).willReturn(Optional.of(anna));
+        given(customerRepository.findById(2L)).willReturn(Optional.of(beth));
+
+        final List<PhoneNumberOwnerDTO> owners = addressBookService.getPhoneNumberOwners("0299990001");
+
+        assertEquals(1, owners.size());
+        assertEquals(1, owners.get(0).getId());
+        assertEquals("Anna", owners.get(0).getName());
+        assertEquals(1, owners.get(0).getAddressBookId());
+        assertEquals("book1", owners.get(0).getAddressBookTitle());
+    }
+
+    @Test
+    public void testGetPhoneNumberOwnersGivenUnknownNumber() {
+        given(phoneNumberIndex.isReady()).willReturn(true);
+        given(phoneNumberIndex.findCustomerIds("0299990001")).willReturn(new long[0]);
+
+        Assertions.assertThrowsExactly(CustomerNotFoundException.class, () -> addressBookService.getPhoneNumberOwners("0299990001"));
+    }
+
     private static Answer<Optional<AddressBook>> mockFindAddressBookAnswer() {
         return inv -> {
             final Long pk = inv.getArgument(0, Long.class);
@@ -201,4 +592,56 @@ public class AddressBookServiceTest {
             }
         };
     }
+
+    private static CustomerSummary createCustomerSummary(final long pk, final String name) {
+        return new CustomerSummary() {
+            @Override
+            public Long getPk() {
+                return pk;
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+        };
+    }
+
+    private static CustomerPhoneNumber createCustomerPhoneNumber(final long pk, final String name, final long addressBookId, final String phoneNumber) {
+        return new CustomerPhoneNumber() {
+            @Override
+            public Long getPk() {
+                return pk;
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public Long getAddressBookId() {
+                return addressBookId;
+            }
+
+            @Override
+            public String getPhoneNumber() {
+                return phoneNumber;
+            }
+        };
+    }
+
+    private static AddressBookSummary createAddressBookSummary(final long pk, final String title) {
+        return new AddressBookSummary() {
+            @Override
+            public Long getPk() {
+                return pk;
+            }
+
+            @Override
+            public String getTitle() {
+                return title;
+            }
+        };
+    }
 }
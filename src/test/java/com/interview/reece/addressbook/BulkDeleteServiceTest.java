@@ -0,0 +1,107 @@
+package com.interview.reece.addressbook;
+
+import com.interview.reece.addressbook.cache.AddressBookListCache;
+import com.interview.reece.addressbook.dto.BulkDeleteResult;
+import com.interview.reece.addressbook.exception.AddressBookNotFoundException;
+import com.interview.reece.addressbook.index.CustomerIndexMaintainer;
+import com.interview.reece.addressbook.repository.AddressBookRepository;
+import com.interview.reece.addressbook.repository.CustomerRepository;
+import com.interview.reece.addressbook.service.BulkDeleteService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+@Tag(TestUtil.UNIT_TEST)
+public class BulkDeleteServiceTest {
+
+    @InjectMocks
+    private BulkDeleteService bulkDeleteService;
+
+    @Mock
+    private CustomerRepository customerRepository;
+
+    @Mock
+    private AddressBookRepository addressBookRepository;
+
+    @Mock
+    private CustomerIndexMaintainer customerIndexMaintainer;
+
+    @Mock
+    private AddressBookListCache addressBookListCache;
+
+    @BeforeEach
+    public void startTransaction() {
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    public void endTransaction() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    public void testRemoveCustomersInBatches() {
+        final List<Long> ids = LongStream.rangeClosed(1, 2500).boxed().toList();
+        given(customerRepository.deleteByPkIn(anyCollection())).willAnswer(invocation -> invocation.<List<Long>>getArgument(0).size());
+
+        final BulkDeleteResult result = bulkDeleteService.removeCustomers(Arrays.asList(1L, null, 1L));
+        assertEquals(1, result.getDeleted());
+
+        assertEquals(2500, bulkDeleteService.removeCustomers(ids).getDeleted());
+        verify(customerRepository, times(4)).deletePhoneNumbersByPkIn(anyCollection());
+        verify(customerRepository, times(4)).deleteByPkIn(anyCollection());
+        verify(customerIndexMaintainer, never()).remove(anyLong());
+
+        commit();
+        verify(customerIndexMaintainer, times(2)).remove(1L);
+        verify(customerIndexMaintainer).remove(2500L);
+    }
+
+    @Test
+    public void testRemoveAddressBookUpdatesIndexesAfterCommit() {
+        given(addressBookRepository.existsById(1L)).willReturn(true);
+        given(customerRepository.deleteByAddressBookPk(1L)).willReturn(3);
+
+        assertEquals(3, bulkDeleteService.removeAddressBook(1L).getDeleted());
+        verify(customerRepository).deletePhoneNumbersByAddressBookPk(1L);
+        verify(addressBookRepository).deleteByPk(1L);
+        verify(addressBookListCache, never()).invalidate();
+
+        commit();
+        verify(customerIndexMaintainer).removeAddressBook(1L);
+        verify(addressBookListCache).invalidate();
+    }
+
+    @Test
+    public void testRemoveAddressBookNotExisting() {
+        given(addressBookRepository.existsById(1L)).willReturn(false);
+
+        assertThrows(AddressBookNotFoundException.class, () -> bulkDeleteService.removeAddressBook(1L));
+        verify(customerRepository, never()).deleteByAddressBookPk(1L);
+    }
+
+    private static void commit() {
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+    }
+}
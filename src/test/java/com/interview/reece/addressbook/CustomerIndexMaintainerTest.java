@@ -0,0 +1,90 @@
+package com.interview.reece.addressbook;
+
+import com.interview.reece.addressbook.aggregate.CustomerPhoneNumber;
+import com.interview.reece.addressbook.aggregate.CustomerSnapshot;
+import com.interview.reece.addressbook.index.CustomerIndexMaintainer;
+import com.interview.reece.addressbook.index.CustomerSearchIndex;
+import com.interview.reece.addressbook.repository.CustomerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+@Tag(TestUtil.UNIT_TEST)
+public class CustomerIndexMaintainerTest {
+
+    private CustomerRepository customerRepository;
+    private CustomerSearchIndex customerSearchIndex;
+    private CustomerIndexMaintainer customerIndexMaintainer;
+
+    @BeforeEach
+    public void prepare() {
+        customerRepository = mock(CustomerRepository.class);
+        customerSearchIndex = new CustomerSearchIndex();
+        customerIndexMaintainer = new CustomerIndexMaintainer(List.of(customerSearchIndex), null, customerRepository, mock(PlatformTransactionManager.class));
+    }
+
+    @Test
+    public void testRebuildReplaysWritesMadeWhileStreaming() {
+        given(customerRepository.streamAllWithPhoneNumbers()).willAnswer(invocation -> {
+            // committed on another thread while the table is read, must not wait for the rebuild
+            CompletableFuture.runAsync(() -> {
+                customerIndexMaintainer.remove(1L);
+                customerIndexMaintainer.add(new CustomerSnapshot(3L, "Cara", 1L, Set.of("03")));
+            }).get(5, TimeUnit.SECONDS);
+            return Stream.of(createCustomerPhoneNumber(1L, "Anna", 1L, "01"), createCustomerPhoneNumber(2L, "Beth", 2L, "02"));
+        });
+
+        customerIndexMaintainer.rebuild();
+
+        assertTrue(customerSearchIndex.isReady());
+        assertTrue(customerSearchIndex.search("anna", 10).isEmpty());
+        assertEquals(List.of(2L), customerSearchIndex.search("beth", 10).stream().map(CustomerSnapshot::getPk).toList());
+        assertEquals(List.of(3L), customerSearchIndex.search("cara", 10).stream().map(CustomerSnapshot::getPk).toList());
+    }
+
+    @Test
+    public void testRemoveAddressBookDropsOnlyItsCustomers() {
+        customerIndexMaintainer.add(new CustomerSnapshot(1L, "Anna", 1L, Set.of("01")));
+        customerIndexMaintainer.add(new CustomerSnapshot(2L, "Anne", 2L, Set.of("02")));
+        customerIndexMaintainer.add(new CustomerSnapshot(3L, "Annie", 1L, Set.of("03")));
+
+        customerIndexMaintainer.removeAddressBook(1L);
+
+        assertEquals(List.of(2L), customerSearchIndex.search("ann", 10).stream().map(CustomerSnapshot::getPk).toList());
+    }
+
+    private static CustomerPhoneNumber createCustomerPhoneNumber(final long pk, final String name, final long addressBookId, final String phoneNumber) {
+        return new CustomerPhoneNumber() {
+            @Override
+            public Long getPk() {
+                return pk;
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public Long getAddressBookId() {
+                return addressBookId;
+            }
+
+            @Override
+            public String getPhoneNumber() {
+                return phoneNumber;
+            }
+        };
+    }
+}
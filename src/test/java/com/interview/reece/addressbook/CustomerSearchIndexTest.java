@@ -0,0 +1,68 @@
+package com.interview.reece.addressbook;
+
+import com.interview.reece.addressbook.aggregate.CustomerSnapshot;
+import com.interview.reece.addressbook.index.CustomerSearchIndex;
+import com.interview.reece.addressbook.index.PhoneNumbers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag(TestUtil.UNIT_TEST)
+public class CustomerSearchIndexTest {
+
+    private CustomerSearchIndex customerSearchIndex;
+
+    @BeforeEach
+    public void prepare() {
+        customerSearchIndex = new CustomerSearchIndex();
+        customerSearchIndex.add(new CustomerSnapshot(1, "Anna Smith", 1, Set.of("+61 2 9999 0001")));
+        customerSearchIndex.add(new CustomerSnapshot(2, "anne Jones", 1, Set.of("(02) 9999-0002")));
+        customerSearchIndex.add(new CustomerSnapshot(3, "Beth", 1, Set.of("0400 000 003")));
+        customerSearchIndex.add(new CustomerSnapshot(4, "Anna Smith", 2, Set.of("0400 000 003")));
+        customerSearchIndex.markReady();
+    }
+
+    @Test
+    public void testSearchByNamePrefixIgnoresCase() {
+        final List<CustomerSnapshot> customers = customerSearchIndex.search("AN", 10);
+
+        assertEquals(List.of(1L, 4L, 2L), customers.stream().map(CustomerSnapshot::getPk).toList());
+        assertTrue(customerSearchIndex.search("annz", 10).isEmpty());
+    }
+
+    @Test
+    public void testSearchByPhoneNumberIgnoresFormatting() {
+        assertEquals(List.of(2L), customerSearchIndex.search("02 9999 0002", 10).stream().map(CustomerSnapshot::getPk).toList());
+        assertEquals(List.of(1L), customerSearchIndex.search("+61299990001", 10).stream().map(CustomerSnapshot::getPk).toList());
+        assertEquals(Set.of(3L, 4L), Set.copyOf(customerSearchIndex.search("0400-000-003", 10).stream().map(CustomerSnapshot::getPk).toList()));
+    }
+
+    @Test
+    public void testSearchStopsAtLimit() {
+        assertEquals(List.of(1L, 4L), customerSearchIndex.search("anna", 2).stream().map(CustomerSnapshot::getPk).toList());
+        assertEquals(1, customerSearchIndex.search("a", 1).size());
+    }
+
+    @Test
+    public void testRemoveDropsNameAndPhoneNumber() {
+        customerSearchIndex.remove(new CustomerSnapshot(4, "Anna Smith", 2, Set.of("0400 000 003")));
+        customerSearchIndex.remove(new CustomerSnapshot(2, "anne Jones", 1, Set.of("(02) 9999-0002")));
+
+        assertEquals(List.of(1L), customerSearchIndex.search("an", 10).stream().map(CustomerSnapshot::getPk).toList());
+        assertEquals(List.of(3L), customerSearchIndex.search("0400000003", 10).stream().map(CustomerSnapshot::getPk).toList());
+        assertTrue(customerSearchIndex.search("0299990002", 10).isEmpty());
+    }
+
+    @Test
+    public void testNormalizePhoneNumber() {
+        assertEquals("+61299990001", PhoneNumbers.normalize(" +61 (2) 9999-0001 "));
+        assertEquals("0299990002", PhoneNumbers.normalize("02.9999.0002"));
+        assertEquals("ext 12", PhoneNumbers.normalize(" ext 12 "));
+        assertEquals("1+2", PhoneNumbers.normalize("1+2"));
+    }
+}
@@ -0,0 +1,71 @@
+package com.interview.reece.addressbook;
+
+import com.interview.reece.addressbook.exception.WriteQueueFullException;
+import com.interview.reece.addressbook.service.CustomerWriteBehindQueue;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
+
+@Tag(TestUtil.UNIT_TEST)
+public class CustomerWriteBehindQueueTest {
+
+    @Test
+    public void testEnqueueReservesIdsUntilFull() {
+        final CustomerWriteBehindQueue queue = createQueue(true, 2);
+
+        final CustomerWriteBehindQueue.QueuedCustomer anna = queue.enqueue(1, "Anna", Set.of("01"));
+        final CustomerWriteBehindQueue.QueuedCustomer beth = queue.enqueue(1, "Beth", null);
+
+        assertEquals(1, anna.id());
+        assertEquals(2, beth.id());
+        assertEquals(Set.of(), beth.phoneNumbers());
+        assertFalse(anna.committed().isDone());
+        assertThrowsExactly(WriteQueueFullException.class, () -> queue.enqueue(1, "Cell", Set.of()));
+    }
+
+    @Test
+    public void testQueuedCustomerTimesOutWhenNotCommitted() {
+        final CustomerWriteBehindQueue queue = createQueue(true, 2, Duration.ofMillis(10));
+
+        final CustomerWriteBehindQueue.QueuedCustomer anna = queue.enqueue(1, "Anna", Set.of("01"));
+
+        final CompletionException exception = assertThrows(CompletionException.class, () -> anna.committed().join());
+        assertInstanceOf(TimeoutException.class, exception.getCause());
+    }
+
+    @Test
+    public void testEnqueueGivenDisabled() {
+        final CustomerWriteBehindQueue queue = createQueue(false, 2);
+
+        assertFalse(queue.isEnabled());
+        assertThrowsExactly(IllegalStateException.class, () -> queue.enqueue(1, "Anna", Set.of()));
+    }
+
+    /**
+     * A queue without its writer thread, so queued customers stay queued
+     */
+    private static CustomerWriteBehindQueue createQueue(final boolean enabled, final int capacity) {
+        return createQueue(enabled, capacity, Duration.ofMinutes(1));
+    }
+
+    private static CustomerWriteBehindQueue createQueue(final boolean enabled, final int capacity, final Duration commitTimeout) {
+        final AtomicLong ids = new AtomicLong();
+        return new CustomerWriteBehindQueue(null, null, null, null, enabled, capacity, 10, commitTimeout) {
+            @Override
+            protected long allocateId() {
+                return ids.incrementAndGet();
+            }
+        };
+    }
+}
@@ -0,0 +1,113 @@
+package com.interview.reece.addressbook;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.interview.reece.addressbook.dto.ExportFormat;
+import com.interview.reece.addressbook.service.AddressBookExportService;
+import com.interview.reece.addressbook.service.CsvExportWriter;
+import com.interview.reece.addressbook.service.NdJsonExportWriter;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.mock;
+
+@Tag(TestUtil.UNIT_TEST)
+public class ExportWriterTest {
+
+    @Test
+    public void testCsvQuotesOnlyValuesThatNeedIt() throws IOException {
+        final StringWriter output = new StringWriter();
+        try (CsvExportWriter writer = new CsvExportWriter(output)) {
+            writer.write(1, "Book, \"one\"", 10L, "Anna", "0412 345 678");
+            writer.write(1, "Book, \"one\"", 11L, "Beth\nSmith", null);
+            writer.write(2, "Empty", null, null, null);
+        }
+
+        assertEquals(String.join("\n",
+                "address_book_id,address_book_title,customer_id,customer_name,phone_number",
+                "1,\"Book, \"\"one\"\"\",10,Anna,0412 345 678",
+                "1,\"Book, \"\"one\"\"\",11,\"Beth\nSmith\",",
+                "2,Empty,,,", ""), output.toString());
+    }
+
+    @Test
+    public void testNdJsonWritesOneLinePerCustomer() throws IOException {
+        final StringWriter output = new StringWriter();
+        try (NdJsonExportWriter writer = new NdJsonExportWriter(new ObjectMapper(), output)) {
+            writer.write(1, "Book 1", 10L, "Anna", "001");
+            writer.write(1, "Book 1", 10L, "Anna", "002");
+            writer.write(1, "Book 1", 11L, "Beth", null);
+            writer.write(2, "Book 2", null, null, null);
+            writer.write(3, "Book 3", 12L, "Cell", "003");
+        }
+
+        assertEquals("""
+                {"addressBookId":1,"addressBookTitle":"Book 1","id":10,"name":"Anna","phoneNumbers":["001","002"]}
+                {"addressBookId":1,"addressBookTitle":"Book 1","id":11,"name":"Beth","phoneNumbers":[]}
+                {"addressBookId":2,"addressBookTitle":"Book 2"}
+                {"addressBookId":3,"addressBookTitle":"Book 3","id":12,"name":"Cell","phoneNumbers":["003"]}
+                """, output.toString());
+    }
+
+    @Test
+    public void testCompleteExportEndsTheGzipStream() throws Exception {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        createExportService(false).export(ExportFormat.CSV, true, output);
+
+        try (GZIPInputStream input = new GZIPInputStream(new ByteArrayInputStream(output.toByteArray()))) {
+            assertEquals(String.join("\n",
+                    "address_book_id,address_book_title,customer_id,customer_name,phone_number",
+                    "1,Book 1,10,Anna,001", ""), new String(input.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    public void testFailedExportLeavesTheGzipStreamUnfinished() throws Exception {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        assertThrows(DataAccessException.class, () -> createExportService(true).export(ExportFormat.NDJSON, true, output));
+
+        try (GZIPInputStream input = new GZIPInputStream(new ByteArrayInputStream(output.toByteArray()))) {
+            assertThrows(EOFException.class, input::readAllBytes);
+        }
+    }
+
+    /**
+     * An export service reading one row, then losing the connection when asked to
+     */
+    private static AddressBookExportService createExportService(final boolean failAfterFirstRow) throws SQLException {
+        final ResultSet row = mock(ResultSet.class);
+        given(row.getLong(1)).willReturn(1L);
+        given(row.getString(2)).willReturn("Book 1");
+        given(row.getLong(3)).willReturn(10L);
+        given(row.getString(4)).willReturn("Anna");
+        given(row.getString(5)).willReturn("001");
+        final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        willAnswer(invocation -> {
+            invocation.getArgument(1, RowCallbackHandler.class).processRow(row);
+            if (failAfterFirstRow) {
+                throw new DataAccessResourceFailureException("Connection lost");
+            }
+            return null;
+        }).given(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+        return new AddressBookExportService(jdbcTemplate, new ObjectMapper(), 100);
+    }
+}
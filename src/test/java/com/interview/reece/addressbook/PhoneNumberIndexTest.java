@@ -0,0 +1,90 @@
+package com.interview.reece.addressbook;
+
+import com.interview.reece.addressbook.aggregate.CustomerSnapshot;
+import com.interview.reece.addressbook.index.PhoneNumberIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag(TestUtil.UNIT_TEST)
+public class PhoneNumberIndexTest {
+
+    private PhoneNumberIndex phoneNumberIndex;
+
+    @BeforeEach
+    public void prepare() {
+        phoneNumberIndex = new PhoneNumberIndex();
+        phoneNumberIndex.markReady();
+    }
+
+    @Test
+    public void testFindCustomerIdsGivenSharedNumber() {
+        phoneNumberIndex.add(new CustomerSnapshot(1, "Anna", 1, Set.of("(02) 9999 0001", "0400 000 001")));
+        phoneNumberIndex.add(new CustomerSnapshot(2, "Beth", 2, Set.of("02-9999-0001")));
+        phoneNumberIndex.add(new CustomerSnapshot(3, "Cell", 2, Set.of("0400 000 003")));
+
+        assertEquals(Set.of(1L, 2L), ids("0299990001"));
+        assertEquals(Set.of(1L), ids("0400-000-001"));
+        assertTrue(ids("0299990009").isEmpty());
+        assertEquals(4, phoneNumberIndex.size());
+    }
+
+    @Test
+    public void testAddIgnoresSameNumberInOtherFormat() {
+        phoneNumberIndex.add(new CustomerSnapshot(1, "Anna", 1, Set.of("02 9999 0001", "0299990001")));
+
+        assertEquals(Set.of(1L), ids("0299990001"));
+        assertEquals(1, phoneNumberIndex.size());
+    }
+
+    @Test
+    public void testRemoveKeepsOtherOwners() {
+        final CustomerSnapshot anna = new CustomerSnapshot(1, "Anna", 1, Set.of("0299990001"));
+        phoneNumberIndex.add(anna);
+        phoneNumberIndex.add(new CustomerSnapshot(2, "Beth", 2, Set.of("0299990001")));
+
+        phoneNumberIndex.remove(anna);
+
+        assertEquals(Set.of(2L), ids("0299990001"));
+        assertEquals(1, phoneNumberIndex.size());
+    }
+
+    @Test
+    public void testGrowsAndReusesRemovedEntries() {
+        for (long customer = 1; customer <= 10_000; customer++) {
+            phoneNumberIndex.add(new CustomerSnapshot(customer, "Customer", 1, Set.of("04" + customer, "05" + customer)));
+        }
+        for (long customer = 1; customer <= 10_000; customer += 2) {
+            phoneNumberIndex.remove(new CustomerSnapshot(customer, "Customer", 1, Set.of("04" + customer, "05" + customer)));
+        }
+        for (long customer = 10_001; customer <= 15_000; customer++) {
+            phoneNumberIndex.add(new CustomerSnapshot(customer, "Customer", 1, Set.of("04" + customer)));
+        }
+
+        assertEquals(15_000, phoneNumberIndex.size());
+        assertTrue(ids("041").isEmpty());
+        assertEquals(Set.of(2L), ids("052"));
+        assertEquals(Set.of(15_000L), ids("0415000"));
+    }
+
+    @Test
+    public void testClearDropsEntries() {
+        phoneNumberIndex.add(new CustomerSnapshot(1, "Anna", 1, Set.of("0299990001")));
+
+        phoneNumberIndex.clear();
+
+        assertFalse(phoneNumberIndex.isReady());
+        assertEquals(0, phoneNumberIndex.size());
+        assertTrue(ids("0299990001").isEmpty());
+    }
+
+    private Set<Long> ids(final String phoneNumber) {
+        return Arrays.stream(phoneNumberIndex.findCustomerIds(phoneNumber)).boxed().collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,127 @@
+package com.interview.reece.addressbook;
+
+import com.interview.reece.addressbook.aggregate.CustomerSnapshot;
+import com.interview.reece.addressbook.aggregate.ResolvedCustomer;
+import com.interview.reece.addressbook.index.Names;
+import com.interview.reece.addressbook.index.ResolvedCustomerIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag(TestUtil.UNIT_TEST)
+public class ResolvedCustomerIndexTest {
+
+    private ResolvedCustomerIndex resolvedCustomerIndex;
+
+    @BeforeEach
+    public void prepare() {
+        resolvedCustomerIndex = new ResolvedCustomerIndex();
+    }
+
+    @Test
+    public void testNamesAreNormalized() {
+        assertEquals("jose smith", Names.normalize("  Jos\u00e9   SMITH "));
+        assertEquals("jo obrien", Names.normalize("Jo O'Brien"));
+        assertEquals("anna maria", Names.normalize("Anna-Maria"));
+        assertEquals("--", Names.normalize(" -- "));
+    }
+
+    @Test
+    public void testCustomersWithSameNameAreMergedOnlyWhenLinkedByPhoneNumber() {
+        resolvedCustomerIndex.add(new CustomerSnapshot(1, "John Smith", 1, Set.of("0412 345 678")));
+        resolvedCustomerIndex.add(new CustomerSnapshot(2, "john smith", 2, Set.of("0412345678", "0299990001")));
+        // linked to the first one through the second one
+        resolvedCustomerIndex.add(new CustomerSnapshot(3, "JOHN SMITH", 3, Set.of("(02) 9999 0001")));
+        resolvedCustomerIndex.add(new CustomerSnapshot(4, "John Smith", 3, Set.of("0499999999")));
+        // same number, other person
+        resolvedCustomerIndex.add(new CustomerSnapshot(5, "Jane Smith", 3, Set.of("0412345678")));
+        resolvedCustomerIndex.add(new CustomerSnapshot(6, "John Smith", 3, Set.of()));
+        resolvedCustomerIndex.markReady();
+
+        final Page<ResolvedCustomer> page = resolvedCustomerIndex.findAll(PageRequest.of(0, 10));
+
+        assertEquals(3, page.getTotalElements());
+        final List<ResolvedCustomer> customers = page.getContent();
+        assertEquals("Jane Smith", customers.get(0).getName());
+        assertEquals("John Smith", customers.get(1).getName());
+        assertEquals(Set.of("0412345678", "0299990001"), customers.get(1).getPhoneNumbers());
+        assertEquals("John Smith", customers.get(2).getName());
+        assertEquals(Set.of("0499999999"), customers.get(2).getPhoneNumbers());
+    }
+
+    @Test
+    public void testChangesAreResolvedOnceReady() {
+        final CustomerSnapshot link = new CustomerSnapshot(3, "Anna", 1, Set.of("001", "002"));
+        resolvedCustomerIndex.add(new CustomerSnapshot(1, "Anna", 1, Set.of("001")));
+        resolvedCustomerIndex.add(new CustomerSnapshot(2, "Anna", 2, Set.of("002")));
+        resolvedCustomerIndex.markReady();
+        assertEquals(2, resolvedCustomerIndex.count());
+
+        resolvedCustomerIndex.add(link);
+        assertEquals(1, resolvedCustomerIndex.count());
+        assertEquals(Set.of("001", "002"), resolvedCustomerIndex.findAfter("", 10).get(0).getPhoneNumbers());
+
+        resolvedCustomerIndex.remove(link);
+        assertEquals(2, resolvedCustomerIndex.count());
+        assertEquals(Set.of("002"), resolvedCustomerIndex.findAfter("", 10).get(1).getPhoneNumbers());
+    }
+
+    @Test
+    public void testReadersKeepSeeingAPersonWhileItIsResolvedAgain() throws Exception {
+        final CustomerSnapshot link = new CustomerSnapshot(3, "Anna", 1, Set.of("001", "002"));
+        resolvedCustomerIndex.add(new CustomerSnapshot(1, "Anna", 1, Set.of("001")));
+        resolvedCustomerIndex.add(new CustomerSnapshot(2, "Anna", 2, Set.of("002")));
+        resolvedCustomerIndex.markReady();
+        final String key = resolvedCustomerIndex.findAfter("", 1).get(0).key();
+
+        final CompletableFuture<Void> writer = CompletableFuture.runAsync(() -> {
+            for (int i = 0; i < 10_000; i++) {
+                resolvedCustomerIndex.add(link);
+                resolvedCustomerIndex.remove(link);
+            }
+        });
+        // the first customer roots its person whether or not the link joins the second one
+        while (!writer.isDone()) {
+            assertEquals(key, resolvedCustomerIndex.findAfter("", 1).get(0).key());
+        }
+        writer.get(10, TimeUnit.SECONDS);
+        assertEquals(2, resolvedCustomerIndex.count());
+    }
+
+    @Test
+    public void testFindAfterSeeksPastSameNamedCustomers() {
+        resolvedCustomerIndex.add(new CustomerSnapshot(1, "Anna", 1, Set.of("001")));
+        resolvedCustomerIndex.add(new CustomerSnapshot(2, "Anna", 2, Set.of("002")));
+        resolvedCustomerIndex.add(new CustomerSnapshot(3, "Beth", 2, Set.of("010")));
+        resolvedCustomerIndex.markReady();
+
+        final ResolvedCustomer first = resolvedCustomerIndex.findAfter("", 1).get(0);
+        final List<ResolvedCustomer> rest = resolvedCustomerIndex.findAfter(first.key(), 10);
+
+        assertEquals(Set.of("001"), first.getPhoneNumbers());
+        assertEquals(2, rest.size());
+        assertEquals(Set.of("002"), rest.get(0).getPhoneNumbers());
+        assertEquals("Beth", rest.get(1).getName());
+    }
+
+    @Test
+    public void testClearIsNotReady() {
+        resolvedCustomerIndex.add(new CustomerSnapshot(1, "Anna", 1, Set.of("001")));
+        resolvedCustomerIndex.markReady();
+
+        resolvedCustomerIndex.clear();
+
+        assertFalse(resolvedCustomerIndex.isReady());
+        assertEquals(0, resolvedCustomerIndex.count());
+        assertTrue(resolvedCustomerIndex.findAfter("", 10).isEmpty());
+    }
+}
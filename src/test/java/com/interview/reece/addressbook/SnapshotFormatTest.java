@@ -0,0 +1,97 @@
+package com.interview.reece.addressbook;
+
+import com.interview.reece.addressbook.service.SnapshotReader;
+import com.interview.reece.addressbook.service.SnapshotWriter;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@Tag(TestUtil.UNIT_TEST)
+public class SnapshotFormatTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testRoundTripAcrossWindows() throws IOException {
+        final Path file = directory.resolve("test.snapshot");
+        try (OutputStream output = Files.newOutputStream(file); SnapshotWriter writer = new SnapshotWriter(output)) {
+            writer.writeAddressBook(1, "Book 1");
+            writer.writeAddressBook(2, "B\u00fccher");
+            for (long pk = 1; pk <= 100; pk++) {
+                writer.writeCustomer(pk, pk % 2 + 1, "Customer " + pk, List.of("04" + pk, "03" + pk));
+            }
+            writer.writeCustomer(101, 1, "No phone", List.of());
+            assertEquals(2, writer.getAddressBooks());
+            assertEquals(101, writer.getCustomers());
+            assertEquals(200, writer.getPhoneNumbers());
+        }
+
+        final List<String> records = new ArrayList<>();
+        // a small window makes the reader remap many times, including in the middle of records
+        try (SnapshotReader reader = new SnapshotReader(file, 64)) {
+            reader.read(new SnapshotReader.Handler() {
+                @Override
+                public void addressBook(long pk, String title) {
+                    records.add(pk + ":" + title);
+                }
+
+                @Override
+                public void customer(long pk, long addressBookId, String name, List<String> phoneNumbers) {
+                    records.add(pk + ":" + addressBookId + ":" + name + ":" + phoneNumbers);
+                }
+            });
+        }
+
+        assertEquals(2 + 101, records.size());
+        assertEquals("2:B\u00fccher", records.get(1));
+        assertEquals("7:2:Customer 7:[047, 037]", records.get(2 + 6));
+        assertEquals("101:1:No phone:[]", records.get(102));
+    }
+
+    @Test
+    public void testTruncatedSnapshotIsRejected() throws IOException {
+        final Path file = directory.resolve("test.snapshot");
+        try (OutputStream output = Files.newOutputStream(file); SnapshotWriter writer = new SnapshotWriter(output)) {
+            writer.writeCustomer(1, 1, "Anna", List.of("001"));
+        }
+        final byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 4));
+
+        try (SnapshotReader reader = new SnapshotReader(file)) {
+            assertThrows(IOException.class, () -> reader.read(new NoOpHandler()));
+        }
+    }
+
+    @Test
+    public void testOtherFileIsRejected() throws IOException {
+        final Path file = directory.resolve("test.snapshot");
+        Files.writeString(file, "address_book_id,address_book_title");
+
+        try (SnapshotReader reader = new SnapshotReader(file)) {
+            assertThrows(IOException.class, () -> reader.read(new NoOpHandler()));
+        }
+    }
+
+    private static class NoOpHandler implements SnapshotReader.Handler {
+
+        @Override
+        public void addressBook(long pk, String title) {
+        }
+
+        @Override
+        public void customer(long pk, long addressBookId, String name, List<String> phoneNumbers) {
+        }
+    }
+}
@@ -12,6 +12,7 @@ public class TestUtil {
     public static String BASE_URL_FORMAT = BASE_URL + "%d/%s";
 
     public static final String SPRING_PROFILE_TEST = "test";
+    public static final String SPRING_PROFILE_REACTIVE = "reactive";
 
     /**
      * Helper method to assert a value is found based on a collection criteria
@@ -0,0 +1,138 @@
+package com.interview.reece.addressbook;
+
+import com.interview.reece.addressbook.aggregate.CustomerSnapshot;
+import com.interview.reece.addressbook.aggregate.MergeCustomer;
+import com.interview.reece.addressbook.index.UniqueCustomerIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+import java.util.Set;
+
+import static com.interview.reece.addressbook.TestUtil.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag(TestUtil.UNIT_TEST)
+public class UniqueCustomerIndexTest {
+
+    private UniqueCustomerIndex uniqueCustomerIndex;
+
+    @BeforeEach
+    public void prepare() {
+        uniqueCustomerIndex = new UniqueCustomerIndex();
+        uniqueCustomerIndex.markReady();
+    }
+
+    @Test
+    public void testFindAllMergesCustomersWithSameName() {
+        uniqueCustomerIndex.add(new CustomerSnapshot(1, "Anna", 1, Set.of("001", "002", "003")));
+        uniqueCustomerIndex.add(new CustomerSnapshot(2, "Beth", 1, Set.of("010")));
+        uniqueCustomerIndex.add(new CustomerSnapshot(3, "Anna", 2, Set.of("101", "003")));
+        uniqueCustomerIndex.add(new CustomerSnapshot(4, "Cell", 2, Set.of("110")));
+
+        final Page<MergeCustomer> page = uniqueCustomerIndex.findAll(PageRequest.of(0, 2));
+
+        assertEquals(3, page.getTotalElements());
+        assertEquals(2, page.getTotalPages());
+        assertEquals(2, page.getNumberOfElements());
+        assertEquals("Anna", page.getContent().get(0).getName());
+        assertMatchesAllUnordered(Set.of("001", "002", "003", "101"), page.getContent().get(0).getPhoneNumbers());
+        assertEquals("Beth", page.getContent().get(1).getName());
+
+        final Page<MergeCustomer> page2 = uniqueCustomerIndex.findAll(PageRequest.of(1, 2));
+        assertEquals(1, page2.getNumberOfElements());
+        assertEquals("Cell", page2.getContent().get(0).getName());
+    }
+
+    @Test
+    public void testPhoneNumberFormattingVariantsAreMerged() {
+        final CustomerSnapshot anna1 = new CustomerSnapshot(1, "Anna", 1, Set.of("0412 345 678"));
+        final CustomerSnapshot anna2 = new CustomerSnapshot(2, "Anna", 2, Set.of("0412345678", "(02) 9999-0001"));
+        uniqueCustomerIndex.add(anna1);
+        uniqueCustomerIndex.add(anna2);
+
+        assertEquals(Set.of("0412345678", "0299990001"), uniqueCustomerIndex.findAfter("", 10).get(0).getPhoneNumbers());
+
+        uniqueCustomerIndex.remove(anna2);
+
+        assertEquals(Set.of("0412345678"), uniqueCustomerIndex.findAfter("", 10).get(0).getPhoneNumbers());
+    }
+
+    @Test
+    public void testRemoveKeepsPhoneNumbersOfRemainingCustomers() {
+        final CustomerSnapshot anna1 = new CustomerSnapshot(1, "Anna", 1, Set.of("001", "003"));
+        final CustomerSnapshot anna2 = new CustomerSnapshot(2, "Anna", 2, Set.of("101", "003"));
+        uniqueCustomerIndex.add(anna1);
+        uniqueCustomerIndex.add(anna2);
+
+        uniqueCustomerIndex.remove(anna1);
+
+        final List<MergeCustomer> customers = uniqueCustomerIndex.findAfter("", 10);
+        assertEquals(1, customers.size());
+        assertMatchesAllUnordered(Set.of("101", "003"), customers.get(0).getPhoneNumbers());
+
+        uniqueCustomerIndex.remove(anna2);
+        assertTrue(uniqueCustomerIndex.findAfter("", 10).isEmpty());
+    }
+
+    @Test
+    public void testFindAfterSeeksPastName() {
+        uniqueCustomerIndex.add(new CustomerSnapshot(1, "Anna", 1, Set.of("001")));
+        uniqueCustomerIndex.add(new CustomerSnapshot(2, "Beth", 1, Set.of("010")));
+        uniqueCustomerIndex.add(new CustomerSnapshot(3, "Cell", 1, Set.of("110")));
+        uniqueCustomerIndex.add(new CustomerSnapshot(4, "Dan", 1, Set.of()));
+
+        final List<MergeCustomer> customers = uniqueCustomerIndex.findAfter("Anna", 10);
+
+        assertEquals(2, customers.size());
+        assertEquals("Beth", customers.get(0).getName());
+        assertEquals("Cell", customers.get(1).getName());
+    }
+
+    @Test
+    public void testCountFollowsAddAndRemove() {
+        final CustomerSnapshot anna1 = new CustomerSnapshot(1, "Anna", 1, Set.of("001"));
+        final CustomerSnapshot anna2 = new CustomerSnapshot(2, "Anna", 2, Set.of("002"));
+        final CustomerSnapshot beth = new CustomerSnapshot(3, "Beth", 1, Set.of("010"));
+        uniqueCustomerIndex.add(anna1);
+        uniqueCustomerIndex.add(anna2);
+        uniqueCustomerIndex.add(beth);
+        assertEquals(2, uniqueCustomerIndex.count());
+
+        uniqueCustomerIndex.remove(anna1);
+        assertEquals(2, uniqueCustomerIndex.count());
+
+        uniqueCustomerIndex.remove(anna2);
+        assertEquals(1, uniqueCustomerIndex.count());
+    }
+
+    @Test
+    public void testFindSliceWithoutTotals() {
+        uniqueCustomerIndex.add(new CustomerSnapshot(1, "Anna", 1, Set.of("001")));
+        uniqueCustomerIndex.add(new CustomerSnapshot(2, "Beth", 1, Set.of("010")));
+        uniqueCustomerIndex.add(new CustomerSnapshot(3, "Cell", 1, Set.of("110")));
+
+        final Slice<MergeCustomer> slice = uniqueCustomerIndex.findSlice(PageRequest.of(0, 2));
+        assertEquals(2, slice.getNumberOfElements());
+        assertTrue(slice.hasNext());
+
+        final Slice<MergeCustomer> slice2 = uniqueCustomerIndex.findSlice(PageRequest.of(1, 2));
+        assertEquals(1, slice2.getNumberOfElements());
+        assertEquals("Cell", slice2.getContent().get(0).getName());
+        assertFalse(slice2.hasNext());
+    }
+
+    @Test
+    public void testClearResetsReady() {
+        uniqueCustomerIndex.add(new CustomerSnapshot(1, "Anna", 1, Set.of("001")));
+        uniqueCustomerIndex.clear();
+
+        assertFalse(uniqueCustomerIndex.isReady());
+        assertEquals(0, uniqueCustomerIndex.count());
+        assertTrue(uniqueCustomerIndex.findAfter("", 10).isEmpty());
+    }
+}
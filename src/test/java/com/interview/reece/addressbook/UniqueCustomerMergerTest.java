@@ -0,0 +1,109 @@
+package com.interview.reece.addressbook;
+
+import com.interview.reece.addressbook.aggregate.CustomerNamePhoneNumber;
+import com.interview.reece.addressbook.aggregate.MergeCustomer;
+import com.interview.reece.addressbook.repository.CustomerRepository;
+import com.interview.reece.addressbook.service.UniqueCustomerMerger;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+@Tag(TestUtil.UNIT_TEST)
+public class UniqueCustomerMergerTest {
+
+    @InjectMocks
+    private UniqueCustomerMerger uniqueCustomerMerger;
+
+    @Mock
+    private CustomerRepository customerRepository;
+
+    @Test
+    public void testMergeNormalizesAndDeduplicatesPhoneNumbers() {
+        final List<MergeCustomer> customers = UniqueCustomerMerger.merge(rows(
+                "Anna", "0412 345 678",
+                "Anna", "0412345678",
+                "Anna", "(02) 9999-0001",
+                "Beth", "010"), 0, 10);
+
+        assertEquals(2, customers.size());
+        assertEquals("Anna", customers.get(0).getName());
+        assertEquals(Set.of("0412345678", "0299990001"), customers.get(0).getPhoneNumbers());
+        assertEquals("Beth", customers.get(1).getName());
+        assertEquals(Set.of("010"), customers.get(1).getPhoneNumbers());
+    }
+
+    @Test
+    public void testMergeSkipsNamesAndStopsAfterLimit() {
+        final Iterator<CustomerNamePhoneNumber> rows = rows(
+                "Anna", "001",
+                "Anna", "002",
+                "Beth", "010",
+                "Cell", "110",
+                "Cell", "111",
+                "Dan", "120",
+                "Dan", "121");
+
+        final List<MergeCustomer> customers = UniqueCustomerMerger.merge(rows, 1, 2);
+
+        assertEquals(List.of("Beth", "Cell"), customers.stream().map(MergeCustomer::getName).toList());
+        assertEquals(Set.of("110", "111"), customers.get(1).getPhoneNumbers());
+        // reading stopped at the first row of the next name
+        assertTrue(rows.hasNext());
+    }
+
+    @Test
+    public void testMergeGivenNoRowsOrNoRoom() {
+        assertTrue(UniqueCustomerMerger.merge(rows(), 0, 10).isEmpty());
+        assertTrue(UniqueCustomerMerger.merge(rows("Anna", "001"), 1, 10).isEmpty());
+        assertTrue(UniqueCustomerMerger.merge(rows("Anna", "001"), 0, 0).isEmpty());
+    }
+
+    @Test
+    public void testFindAllCountsOnlyWhenPageIsFull() {
+        given(customerRepository.streamNamesWithPhoneNumbers()).willReturn(Stream.of(row("Anna", "001"), row("Beth", "010")));
+
+        final Page<MergeCustomer> page = uniqueCustomerMerger.findAll(PageRequest.of(0, 5));
+
+        assertEquals(2, page.getTotalElements());
+        assertEquals(2, page.getNumberOfElements());
+        verify(customerRepository, never()).countDistinctNameWithPhoneNumbers();
+    }
+
+    @Test
+    public void testFindSliceReadsOneMoreName() {
+        given(customerRepository.streamNamesWithPhoneNumbers()).willReturn(Stream.of(row("Anna", "001"), row("Beth", "010"), row("Cell", "110")));
+
+        final Slice<MergeCustomer> slice = uniqueCustomerMerger.findSlice(PageRequest.of(0, 2));
+
+        assertTrue(slice.hasNext());
+        assertEquals(2, slice.getNumberOfElements());
+        assertEquals("Beth", slice.getContent().get(1).getName());
+    }
+
+    private static Iterator<CustomerNamePhoneNumber> rows(final String... nameAndPhoneNumbers) {
+        return Stream.iterate(0, i -> i < nameAndPhoneNumbers.length, i -> i + 2)
+                .map(i -> row(nameAndPhoneNumbers[i], nameAndPhoneNumbers[i + 1]))
+                .iterator();
+    }
+
+    private static CustomerNamePhoneNumber row(final String name, final String phoneNumber) {
+        return new CustomerNamePhoneNumber(name, phoneNumber);
+    }
+}
@@ -1,12 +1,17 @@
 package com.interview.reece.addressbook.integration;
 
+import com.interview.reece.addressbook.aggregate.CustomerSnapshot;
+import com.interview.reece.addressbook.aggregate.CustomerSummary;
 import com.interview.reece.addressbook.model.AddressBook;
 import com.interview.reece.addressbook.model.Customer;
 import com.interview.reece.addressbook.repository.AddressBookRepository;
 import com.interview.reece.addressbook.repository.CustomerRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -35,6 +40,19 @@ public abstract class AbstractAddressBookIntegrationTest {
 
     }
 
+    /**
+     * Reads the customers of the address book with their phone numbers through the projections the service uses
+     */
+    protected List<CustomerSnapshot> findCustomers(final long addressBookId) {
+        final List<Long> pks = customerRepository.findSummariesByAddressBookPk(addressBookId, Pageable.unpaged()).map(CustomerSummary::getPk).toList();
+        if (pks.isEmpty()) {
+            return List.of();
+        }
+        final List<CustomerSnapshot> customers = new ArrayList<>();
+        CustomerSnapshot.group(customerRepository.findPhoneNumbersByPkIn(pks).stream(), customers::add);
+        return customers;
+    }
+
     protected Customer insertCustomer(final AddressBook addressBook,final String name,String... phoneNumbers){
         Customer customer = new Customer(name);
         customer.setAddressBook(addressBook);
@@ -1,12 +1,26 @@
 package com.interview.reece.addressbook.integration;
 
+import com.interview.reece.addressbook.aggregate.CustomerSnapshot;
 import com.interview.reece.addressbook.TestUtil;
 import com.interview.reece.addressbook.dto.AddressBookDTO;
+import com.interview.reece.addressbook.dto.BulkDeleteResult;
 import com.interview.reece.addressbook.dto.CustomerDTO;
+import com.interview.reece.addressbook.dto.CustomerImportResult;
 import com.interview.reece.addressbook.dto.CustomerPageResult;
+import com.interview.reece.addressbook.dto.PhoneNumberOwnerDTO;
 import com.interview.reece.addressbook.dto.request.AddressBookRequestDTO;
+import com.interview.reece.addressbook.dto.request.CustomerPatchRequestDTO;
 import com.interview.reece.addressbook.dto.request.CustomerRequestDTO;
+import com.interview.reece.addressbook.index.CustomerIndexMaintainer;
+import com.interview.reece.addressbook.index.CustomerSearchIndex;
+import com.interview.reece.addressbook.index.PhoneNumberIndex;
 import com.interview.reece.addressbook.model.AddressBook;
+import com.interview.reece.addressbook.model.Customer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
@@ -18,9 +32,17 @@ import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.*;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.zip.GZIPInputStream;
 
 import static com.interview.reece.addressbook.TestUtil.*;
 import static org.junit.jupiter.api.Assertions.*;
@@ -36,6 +58,18 @@ public class AddressBookApplicationIntegrationTest extends AbstractAddressBookIn
     @Autowired
     TestRestTemplate restTemplate;
 
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    CustomerSearchIndex customerSearchIndex;
+
+    @Autowired
+    PhoneNumberIndex phoneNumberIndex;
+
+    @Autowired
+    CustomerIndexMaintainer customerIndexMaintainer;
+
 
     @BeforeEach
     public void prepare() {
@@ -79,6 +113,28 @@ public class AddressBookApplicationIntegrationTest extends AbstractAddressBookIn
         assertContains(addressBooks, book -> "Address Book 101".equals(book.getTitle()));
     }
 
+    @Test
+    public void testGetAllAddressBookGivenUnchangedETag() {
+        insertAddressBook("Address Book 100");
+        final ResponseEntity<String> firstResponse = restTemplate.getForEntity(getUrl("/address-book/books"), String.class);
+        assertEquals(HttpStatus.OK, firstResponse.getStatusCode());
+        final String eTag = firstResponse.getHeaders().getETag();
+        assertNotNull(eTag);
+
+        final HttpHeaders headers = new HttpHeaders();
+        headers.setIfNoneMatch(eTag);
+        final ResponseEntity<String> notModifiedResponse = restTemplate.exchange(getUrl("/address-book/books"), HttpMethod.GET, new HttpEntity<>(headers), String.class);
+        assertEquals(HttpStatus.NOT_MODIFIED, notModifiedResponse.getStatusCode());
+        assertNull(notModifiedResponse.getBody());
+
+        restTemplate.postForEntity(getUrl("/address-book/books"), new AddressBookRequestDTO("Address Book 101"), AddressBookDTO.class);
+        final ResponseEntity<List<AddressBookDTO>> changedResponse = restTemplate.exchange(getUrl("/address-book/books"), HttpMethod.GET, new HttpEntity<>(headers), new ParameterizedTypeReference<>() {
+        });
+        assertEquals(HttpStatus.OK, changedResponse.getStatusCode());
+        assertNotEquals(eTag, changedResponse.getHeaders().getETag());
+        assertEquals(2, changedResponse.getBody().size());
+    }
+
     @Test
     public void testGetAddressBookCustomersGivenNotExisting() {
 
@@ -104,6 +160,66 @@ public class AddressBookApplicationIntegrationTest extends AbstractAddressBookIn
         assertNotContains(result, c -> "Roberto Pot".equals(c.getName()));
     }
 
+    @Test
+    public void testGetAddressBookCustomersPage() {
+        long addressBookId = insertAddressBook("Address Book 1", "Merry Go", "Round Robin", "Jose Jan").getPk();
+        insertAddressBook("Address Book 2", "Roberto Pot");
+
+        final ResponseEntity<CustomerPageResult> customersResponse = restTemplate.getForEntity(getUrl("/address-book/books/%d/customers?page=0&pageSize=2".formatted(addressBookId)), CustomerPageResult.class);
+        assertEquals(HttpStatus.OK, customersResponse.getStatusCode());
+
+        final CustomerPageResult customerPageResult = customersResponse.getBody();
+        assertEquals(3, customerPageResult.getTotalSize());
+        assertEquals(2, customerPageResult.getTotalPages());
+        assertEquals(2, customerPageResult.getCurrentPageSize());
+        assertNotNull(customerPageResult.getNextCursor());
+
+        final ResponseEntity<CustomerPageResult> customersResponse2 = restTemplate.getForEntity(getUrl("/address-book/books/%d/customers?after=%s&pageSize=2".formatted(addressBookId, customerPageResult.getNextCursor())), CustomerPageResult.class);
+        assertEquals(HttpStatus.OK, customersResponse2.getStatusCode());
+
+        final CustomerPageResult customerPageResult2 = customersResponse2.getBody();
+        assertEquals(1, customerPageResult2.getCurrentPageSize());
+        assertNull(customerPageResult2.getNextCursor());
+        assertNotContains(customerPageResult2.getResults(), c -> customerPageResult.getResults().stream().anyMatch(first -> first.getId() == c.getId()));
+        assertNotContains(customerPageResult2.getResults(), c -> "Roberto Pot".equals(c.getName()));
+    }
+
+    @Test
+    public void testGetAddressBookCustomersPageGivenInvalidPageSize() {
+        final AddressBook addressBook = insertAddressBook("Address Book 1");
+        final ResponseEntity<ErrorResponse> byCursor = restTemplate.exchange(getUrl("/address-book/books/%d/customers?after=&pageSize=0".formatted(addressBook.getPk())), HttpMethod.GET, null, ErrorResponse.class);
+        assertEquals(HttpStatus.BAD_REQUEST, byCursor.getStatusCode());
+        final ResponseEntity<ErrorResponse> byPage = restTemplate.exchange(getUrl("/address-book/books/%d/customers?pageSize=-1".formatted(addressBook.getPk())), HttpMethod.GET, null, ErrorResponse.class);
+        assertEquals(HttpStatus.BAD_REQUEST, byPage.getStatusCode());
+    }
+
+    @Test
+    public void testStreamAddressBookCustomers() throws Exception {
+        final AddressBook addressBook = insertAddressBook("Address Book 1");
+        insertCustomer(addressBook, "Merry Go", "01", "02");
+        insertCustomer(addressBook, "Round Robin", "03");
+        insertAddressBook("Address Book 2", "Roberto Pot");
+
+        final ResponseEntity<String> response = restTemplate.getForEntity(getUrl("/address-book/books/%d/customers/stream".formatted(addressBook.getPk())), String.class);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(MediaType.APPLICATION_NDJSON, response.getHeaders().getContentType());
+
+        final ObjectMapper objectMapper = new ObjectMapper();
+        final List<CustomerDTO> customers = new ArrayList<>();
+        for (String line : response.getBody().split("\n")) {
+            customers.add(objectMapper.readValue(line, CustomerDTO.class));
+        }
+        assertEquals(2, customers.size());
+        assertContains(customers, c -> "Merry Go".equals(c.getName()) && c.getPhoneNumbers().equals(Set.of("01", "02")));
+        assertContains(customers, c -> "Round Robin".equals(c.getName()) && c.getPhoneNumbers().equals(Set.of("03")));
+    }
+
+    @Test
+    public void testStreamAddressBookCustomersGivenNotExisting() {
+        final ResponseEntity<String> errorResponse = restTemplate.getForEntity(getUrl("/address-book/books/%d/customers/stream".formatted(0)), String.class);
+        assertEquals(HttpStatus.NOT_FOUND, errorResponse.getStatusCode());
+    }
+
     @Test
     public void testCreateCustomerInvalidAddressBook() {
         final ResponseEntity<String> customersResponse = restTemplate.getForEntity(getUrl("/address-book/books/%d/customers".formatted(0)), String.class);
@@ -119,6 +235,80 @@ public class AddressBookApplicationIntegrationTest extends AbstractAddressBookIn
         assertTrue(customerRepository.findById(customerID).isEmpty());
     }
 
+    @Test
+    public void testSearchCustomers() {
+        final AddressBook addressBook = insertAddressBook("Address Book 1");
+        final long rowe = insertCustomer(addressBook, "Rowe", "(02) 121 000").getPk();
+        insertCustomer(addressBook, "Robin", "022222");
+        insertCustomer(addressBook, "Martha", "033333");
+
+        final ResponseEntity<List<CustomerDTO>> byName = restTemplate.exchange(getUrl("/address-book/customers/search?q=ro"), HttpMethod.GET, null, new ParameterizedTypeReference<>() {
+        });
+        assertEquals(HttpStatus.OK, byName.getStatusCode());
+        assertEquals(List.of("Robin", "Rowe"), byName.getBody().stream().map(CustomerDTO::getName).toList());
+
+        final ResponseEntity<List<CustomerDTO>> byPhoneNumber = restTemplate.exchange(getUrl("/address-book/customers/search?q=02121000"), HttpMethod.GET, null, new ParameterizedTypeReference<>() {
+        });
+        assertEquals(1, byPhoneNumber.getBody().size());
+        assertEquals(rowe, byPhoneNumber.getBody().get(0).getId());
+
+        restTemplate.delete(getUrl("/address-book/customers/%d".formatted(rowe)));
+        final ResponseEntity<List<CustomerDTO>> afterRemove = restTemplate.exchange(getUrl("/address-book/customers/search?q=ro"), HttpMethod.GET, null, new ParameterizedTypeReference<>() {
+        });
+        assertEquals(List.of("Robin"), afterRemove.getBody().stream().map(CustomerDTO::getName).toList());
+    }
+
+    @Test
+    public void testSearchCustomersBeforeIndexIsReady() {
+        final AddressBook addressBook = insertAddressBook("Address Book 1");
+        final long rowe = insertCustomer(addressBook, "Rowe", "021", "022").getPk();
+        insertCustomer(addressBook, "Robin", "033");
+        customerSearchIndex.clear();
+        phoneNumberIndex.clear();
+        try {
+            // served from the database, the phone numbers are read before the transaction ends
+            final ResponseEntity<List<CustomerDTO>> byName = restTemplate.exchange(getUrl("/address-book/customers/search?q=ro"), HttpMethod.GET, null, new ParameterizedTypeReference<>() {
+            });
+            assertEquals(HttpStatus.OK, byName.getStatusCode());
+            assertEquals(List.of("Robin", "Rowe"), byName.getBody().stream().map(CustomerDTO::getName).toList());
+            assertEquals(Set.of("021", "022"), byName.getBody().get(1).getPhoneNumbers());
+
+            final ResponseEntity<List<CustomerDTO>> byPhoneNumber = restTemplate.exchange(getUrl("/address-book/customers/search?q=022"), HttpMethod.GET, null, new ParameterizedTypeReference<>() {
+            });
+            assertEquals(HttpStatus.OK, byPhoneNumber.getStatusCode());
+            assertEquals(List.of(rowe), byPhoneNumber.getBody().stream().map(CustomerDTO::getId).toList());
+
+            final ResponseEntity<List<PhoneNumberOwnerDTO>> owners = restTemplate.exchange(getUrl("/address-book/phone-numbers/022"), HttpMethod.GET, null, new ParameterizedTypeReference<>() {
+            });
+            assertEquals(HttpStatus.OK, owners.getStatusCode());
+            assertEquals(Set.of("021", "022"), owners.getBody().get(0).getPhoneNumbers());
+        } finally {
+            customerIndexMaintainer.rebuild();
+        }
+    }
+
+    @Test
+    public void testGetPhoneNumberOwners() {
+        final AddressBook addressBook1 = insertAddressBook("Address Book 1");
+        final AddressBook addressBook2 = insertAddressBook("Address Book 2");
+        final long rowe = insertCustomer(addressBook1, "Rowe", "(02) 121 000").getPk();
+        final long robin = insertCustomer(addressBook2, "Robin", "02-121-000", "033333").getPk();
+        insertCustomer(addressBook2, "Martha", "033334");
+
+        final ResponseEntity<List<PhoneNumberOwnerDTO>> ownersResponse = restTemplate.exchange(getUrl("/address-book/phone-numbers/02121000"), HttpMethod.GET, null, new ParameterizedTypeReference<>() {
+        });
+        assertEquals(HttpStatus.OK, ownersResponse.getStatusCode());
+        final List<PhoneNumberOwnerDTO> owners = ownersResponse.getBody();
+        assertEquals(2, owners.size());
+        assertContains(owners, owner -> owner.getId() == rowe && owner.getAddressBookId() == addressBook1.getPk() && "Address Book 1".equals(owner.getAddressBookTitle()));
+        assertContains(owners, owner -> owner.getId() == robin && owner.getAddressBookId() == addressBook2.getPk());
+
+        restTemplate.delete(getUrl("/address-book/customers/%d".formatted(rowe)));
+        restTemplate.delete(getUrl("/address-book/customers/%d".formatted(robin)));
+        final ResponseEntity<ErrorResponse> notFoundResponse = restTemplate.getForEntity(getUrl("/address-book/phone-numbers/02121000"), ErrorResponse.class);
+        assertEquals(HttpStatus.NOT_FOUND, notFoundResponse.getStatusCode());
+    }
+
     @Test
     public void testRemoveCustomerNotExisting() {
 
@@ -130,6 +320,111 @@ public class AddressBookApplicationIntegrationTest extends AbstractAddressBookIn
         assertTrue(errorResponse.getErrors().size() >0);
     }
 
+    @Test
+    public void testUpdateCustomerWritesOnlyChangedPhoneNumbers() {
+        final AddressBook addressBook = insertAddressBook("Address Book 1");
+        final long customerId = insertCustomer(addressBook, "Rowe", "01", "02", "03").getPk();
+        final Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        final ResponseEntity<CustomerDTO> updateResponse = restTemplate.exchange(getUrl("/address-book/customers/%d".formatted(customerId)), HttpMethod.PUT,
+                new HttpEntity<>(new CustomerRequestDTO("Rowe", Set.of("02", "03", "04"))), CustomerDTO.class);
+
+        assertEquals(HttpStatus.OK, updateResponse.getStatusCode());
+        assertMatchesAllUnordered(Set.of("02", "03", "04"), updateResponse.getBody().getPhoneNumbers());
+        assertEquals(0, statistics.getEntityUpdateCount());
+        assertEquals(1, statistics.getCollectionUpdateCount());
+        assertEquals(0, statistics.getCollectionRecreateCount());
+        assertEquals(0, statistics.getCollectionRemoveCount());
+
+        final ResponseEntity<List<PhoneNumberOwnerDTO>> owners = restTemplate.exchange(getUrl("/address-book/phone-numbers/04"), HttpMethod.GET, null, new ParameterizedTypeReference<>() {
+        });
+        assertEquals(1, owners.getBody().size());
+        final ResponseEntity<List<PhoneNumberOwnerDTO>> formerOwners = restTemplate.exchange(getUrl("/address-book/phone-numbers/01"), HttpMethod.GET, null, new ParameterizedTypeReference<>() {
+        });
+        assertTrue(formerOwners.getBody().isEmpty());
+    }
+
+    @Test
+    public void testLateIndexRefreshKeepsDeletedCustomerOut() {
+        final AddressBook addressBook = insertAddressBook("Address Book 1");
+        final long customerId = insertCustomer(addressBook, "Rowe", "01").getPk();
+
+        restTemplate.delete(getUrl("/address-book/customers/%d".formatted(customerId)));
+        // the after-commit refresh of an update that committed before the delete
+        customerIndexMaintainer.refresh(customerId);
+
+        final ResponseEntity<List<CustomerDTO>> search = restTemplate.exchange(getUrl("/address-book/customers/search?q=rowe"), HttpMethod.GET, null, new ParameterizedTypeReference<>() {
+        });
+        assertTrue(search.getBody().isEmpty());
+    }
+
+    @Test
+    public void testPatchCustomerName() {
+        final AddressBook addressBook = insertAddressBook("Address Book 1");
+        final long customerId = insertCustomer(addressBook, "Rowe", "01").getPk();
+
+        final CustomerDTO customer = restTemplate.patchForObject(getUrl("/address-book/customers/%d".formatted(customerId)), new CustomerPatchRequestDTO("Robin", null), CustomerDTO.class);
+
+        assertEquals("Robin", customer.getName());
+        assertEquals(Set.of("01"), customer.getPhoneNumbers());
+        final ResponseEntity<List<CustomerDTO>> byName = restTemplate.exchange(getUrl("/address-book/customers/search?q=rob"), HttpMethod.GET, null, new ParameterizedTypeReference<>() {
+        });
+        assertEquals(List.of(customerId), byName.getBody().stream().map(CustomerDTO::getId).toList());
+    }
+
+    @Test
+    public void testPatchCustomerGivenBlankName() {
+        final AddressBook addressBook = insertAddressBook("Address Book 1");
+        final long customerId = insertCustomer(addressBook, "Rowe", "01").getPk();
+
+        final ResponseEntity<ErrorResponse> errorResponse = restTemplate.exchange(getUrl("/address-book/customers/%d".formatted(customerId)), HttpMethod.PATCH,
+                new HttpEntity<>(new CustomerPatchRequestDTO(" ", null)), ErrorResponse.class);
+        assertEquals(HttpStatus.BAD_REQUEST, errorResponse.getStatusCode());
+    }
+
+    @Test
+    public void testRemoveCustomers() {
+        final AddressBook addressBook = insertAddressBook("Address Book 1");
+        final long rowe = insertCustomer(addressBook, "Rowe", "02121").getPk();
+        final long robin = insertCustomer(addressBook, "Robin").getPk();
+        final long martha = insertCustomer(addressBook, "Martha", "033333").getPk();
+
+        final ResponseEntity<BulkDeleteResult> deleteResponse = restTemplate.postForEntity(getUrl("/address-book/customers:bulkDelete"), List.of(rowe, robin, 0L), BulkDeleteResult.class);
+        assertEquals(HttpStatus.OK, deleteResponse.getStatusCode());
+        assertEquals(2, deleteResponse.getBody().getDeleted());
+        assertEquals(List.of(martha), findCustomers(addressBook.getPk()).stream().map(CustomerSnapshot::getPk).toList());
+
+        final ResponseEntity<List<PhoneNumberOwnerDTO>> owners = restTemplate.exchange(getUrl("/address-book/phone-numbers/02121"), HttpMethod.GET, null, new ParameterizedTypeReference<>() {
+        });
+        assertTrue(owners.getBody().isEmpty());
+    }
+
+    @Test
+    public void testRemoveAddressBook() {
+        final AddressBook removed = insertAddressBook("Address Book 1", Map.of("Allan", Set.of("01", "02"), "Beth", Set.of("03")));
+        final AddressBook kept = insertAddressBook("Address Book 2", Map.of("Allan", Set.of("04")));
+        restTemplate.getForEntity(getUrl("/address-book/books"), AddressBookDTO[].class);
+
+        final ResponseEntity<BulkDeleteResult> deleteResponse = restTemplate.exchange(getUrl("/address-book/books/%d".formatted(removed.getPk())), HttpMethod.DELETE, null, BulkDeleteResult.class);
+        assertEquals(HttpStatus.OK, deleteResponse.getStatusCode());
+        assertEquals(2, deleteResponse.getBody().getDeleted());
+        assertTrue(addressBookRepository.findById(removed.getPk()).isEmpty());
+
+        final ResponseEntity<AddressBookDTO[]> books = restTemplate.getForEntity(getUrl("/address-book/books"), AddressBookDTO[].class);
+        assertEquals(List.of(kept.getPk()), Arrays.stream(books.getBody()).map(AddressBookDTO::getId).toList());
+
+        final CustomerPageResult customers = restTemplate.getForEntity(getUrl("/address-book/customers"), CustomerPageResult.class).getBody();
+        assertEquals(1, customers.getTotalSize());
+        assertMatchesAllUnordered(Set.of("04"), customers.getResults().get(0).getPhoneNumbers());
+    }
+
+    @Test
+    public void testRemoveAddressBookNotExisting() {
+        final ResponseEntity<ErrorResponse> errorResponse = restTemplate.exchange(getUrl("/address-book/books/%d".formatted(0)), HttpMethod.DELETE, null, ErrorResponse.class);
+        assertEquals(HttpStatus.NOT_FOUND, errorResponse.getStatusCode());
+    }
+
     @Test
     public void testCreateCustomerValidAddressBook() {
         long id = insertAddressBook("Address Book 1").getPk();
@@ -155,6 +450,48 @@ public class AddressBookApplicationIntegrationTest extends AbstractAddressBookIn
         assertTrue(errorResponse.getErrors().size() > 0);
     }
 
+    @Test
+    public void testImportCustomersFromJsonArray() {
+        long id = insertAddressBook("Address Book 1").getPk();
+        final List<CustomerRequestDTO> customers = List.of(new CustomerRequestDTO("Martha", Set.of("0123121")), new CustomerRequestDTO("", Set.of("0121022")), new CustomerRequestDTO("Rowe", Set.of()));
+        final ResponseEntity<CustomerImportResult> importResponse = restTemplate.postForEntity(getUrl("/address-book/books/%d/customers:bulk".formatted(id)), customers, CustomerImportResult.class);
+        assertEquals(HttpStatus.OK, importResponse.getStatusCode());
+
+        final CustomerImportResult importResult = importResponse.getBody();
+        assertEquals(2, importResult.getImported());
+        assertEquals(1, importResult.getFailures().size());
+        assertEquals(1, importResult.getFailures().get(0).getIndex());
+
+        final List<CustomerSnapshot> imported = findCustomers(id);
+        assertEquals(2, imported.size());
+        assertContains(imported, c -> "Martha".equals(c.getName()) && c.getPhoneNumbers().contains("0123121"));
+        assertContains(imported, c -> "Rowe".equals(c.getName()));
+    }
+
+    @Test
+    public void testImportCustomersFromNdJson() {
+        long id = insertAddressBook("Address Book 1").getPk();
+        final String content = """
+                {"name":"Martha","phoneNumbers":["0123121"]}
+                {"name":"Jose","phoneNumbers":["0121022","0121023"]}
+                """;
+        final HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_NDJSON);
+        final ResponseEntity<CustomerImportResult> importResponse = restTemplate.postForEntity(getUrl("/address-book/books/%d/customers:bulk".formatted(id)), new HttpEntity<>(content, headers), CustomerImportResult.class);
+        assertEquals(HttpStatus.OK, importResponse.getStatusCode());
+
+        final CustomerImportResult importResult = importResponse.getBody();
+        assertEquals(2, importResult.getImported());
+        assertTrue(importResult.getFailures().isEmpty());
+        assertEquals(2, findCustomers(id).size());
+    }
+
+    @Test
+    public void testImportCustomersInvalidAddressBook() {
+        final ResponseEntity<ErrorResponse> importResponse = restTemplate.postForEntity(getUrl("/address-book/books/%d/customers:bulk".formatted(0)), List.of(new CustomerRequestDTO("Martha", Set.of())), ErrorResponse.class);
+        assertEquals(HttpStatus.NOT_FOUND, importResponse.getStatusCode());
+    }
+
     @Test
     public void testGetAllUniqueCustomers() {
         insertAddressBook("Address Book 1", Map.of("Allan", Set.of("01", "02", "03"), "Jo", Set.of("121", "122", "123")));
@@ -210,6 +547,143 @@ public class AddressBookApplicationIntegrationTest extends AbstractAddressBookIn
 
     }
 
+    @Test
+    public void testGetAllUniqueCustomersWithoutTotals() {
+        insertAddressBook("Address Book 1", Map.of("Allan", Set.of("01", "02", "03"), "Jo", Set.of("121", "122", "123")));
+        insertAddressBook("Address Book 2", Map.of("Allan", Set.of("11", "12", "13"), "Jean", Set.of("221", "222", "223")));
+        final ResponseEntity<CustomerPageResult> customersResponse = restTemplate.exchange(getUrl("/address-book/customers?page=0&pageSize=2&includeTotals=false"), HttpMethod.GET, null, CustomerPageResult.class);
+
+        assertEquals(HttpStatus.OK, customersResponse.getStatusCode());
+        final CustomerPageResult customerPageResult = customersResponse.getBody();
+        assertEquals(-1, customerPageResult.getTotalSize());
+        assertEquals(-1, customerPageResult.getTotalPages());
+        assertEquals(2, customerPageResult.getCurrentPageSize());
+        assertTrue(customerPageResult.isHasNext());
+    }
+
+    @Test
+    public void testGetAllUniqueCustomersByCursor() {
+        insertAddressBook("Address Book 1", Map.of("Allan", Set.of("01", "02", "03"), "Jo", Set.of("121", "122", "123")));
+        insertAddressBook("Address Book 2", Map.of("Allan", Set.of("11", "12", "13"), "Jean", Set.of("221", "222", "223")));
+        int pageSize = 2;
+        final ResponseEntity<CustomerPageResult> customersResponse = restTemplate.exchange(getUrl("/address-book/customers?after=&pageSize=%d".formatted(pageSize)), HttpMethod.GET, null, CustomerPageResult.class);
+
+        assertEquals(HttpStatus.OK, customersResponse.getStatusCode());
+        final CustomerPageResult customerPageResult = customersResponse.getBody();
+        assertEquals(2, customerPageResult.getCurrentPageSize());
+        assertEquals("Allan", customerPageResult.getResults().get(0).getName());
+        assertEquals(6, customerPageResult.getResults().get(0).getPhoneNumbers().size());
+        assertEquals("Jean", customerPageResult.getResults().get(1).getName());
+        assertNotNull(customerPageResult.getNextCursor());
+
+        final ResponseEntity<CustomerPageResult> customersResponse2 = restTemplate.exchange(getUrl("/address-book/customers?after=%s&pageSize=%d".formatted(customerPageResult.getNextCursor(), pageSize)), HttpMethod.GET, null, CustomerPageResult.class);
+
+        assertEquals(HttpStatus.OK, customersResponse2.getStatusCode());
+        final CustomerPageResult customerPageResult2 = customersResponse2.getBody();
+        assertEquals(1, customerPageResult2.getCurrentPageSize());
+        assertEquals("Jo", customerPageResult2.getResults().get(0).getName());
+        assertNull(customerPageResult2.getNextCursor());
+    }
+
+    @Test
+    public void testGetAllUniqueCustomersResolvedByNameAndPhone() {
+        insertAddressBook("Address Book 1", Map.of("John Smith", Set.of("0412 345 678"), "Jo", Set.of("121")));
+        insertAddressBook("Address Book 2", Map.of("john  smith", Set.of("0412345678", "02 9999 0001")));
+        insertAddressBook("Address Book 3", Map.of("John Smith", Set.of("0499 999 999")));
+
+        final ResponseEntity<CustomerPageResult> customersResponse = restTemplate.exchange(getUrl("/address-book/customers?page=0&pageSize=2&strategy=NAME_AND_PHONE"), HttpMethod.GET, null, CustomerPageResult.class);
+
+        assertEquals(HttpStatus.OK, customersResponse.getStatusCode());
+        final CustomerPageResult customerPageResult = customersResponse.getBody();
+        assertEquals(3, customerPageResult.getTotalSize());
+        assertEquals("Jo", customerPageResult.getResults().get(0).getName());
+        assertEquals(Set.of("0412345678", "0299990001"), customerPageResult.getResults().get(1).getPhoneNumbers());
+
+        final ResponseEntity<CustomerPageResult> customersResponse2 = restTemplate.exchange(getUrl("/address-book/customers?after=%s&pageSize=2&strategy=NAME_AND_PHONE".formatted(customerPageResult.getNextCursor())), HttpMethod.GET, null, CustomerPageResult.class);
+
+        assertEquals(HttpStatus.OK, customersResponse2.getStatusCode());
+        final CustomerPageResult customerPageResult2 = customersResponse2.getBody();
+        assertEquals(1, customerPageResult2.getCurrentPageSize());
+        assertEquals("John Smith", customerPageResult2.getResults().get(0).getName());
+        assertEquals(Set.of("0499999999"), customerPageResult2.getResults().get(0).getPhoneNumbers());
+        assertNull(customerPageResult2.getNextCursor());
+    }
+
+    @Test
+    public void testGetAllUniqueCustomersAfterRemoveCustomer() {
+        final AddressBook addressBook1 = insertAddressBook("Address Book 1");
+        final AddressBook addressBook2 = insertAddressBook("Address Book 2");
+        final long removedId = insertCustomer(addressBook1, "Allan", "01", "02").getPk();
+        insertCustomer(addressBook2, "Allan", "02", "03");
+
+        restTemplate.delete(getUrl("/address-book/customers/%d".formatted(removedId)));
+
+        final ResponseEntity<CustomerPageResult> customersResponse = restTemplate.exchange(getUrl("/address-book/customers"), HttpMethod.GET, null, CustomerPageResult.class);
+        assertEquals(HttpStatus.OK, customersResponse.getStatusCode());
+
+        final CustomerPageResult customerPageResult = customersResponse.getBody();
+        assertEquals(1, customerPageResult.getTotalSize());
+        final CustomerDTO allan = customerPageResult.getResults().get(0);
+        assertEquals("Allan", allan.getName());
+        assertMatchesAllUnordered(Set.of("02", "03"), allan.getPhoneNumbers());
+    }
+
+    @Test
+    public void testGetAllUniqueCustomersGivenInvalidCursor() {
+        final ResponseEntity<ErrorResponse> errorResponse = restTemplate.exchange(getUrl("/address-book/customers?after=%s".formatted("!!")), HttpMethod.GET, null, ErrorResponse.class);
+        assertEquals(HttpStatus.BAD_REQUEST, errorResponse.getStatusCode());
+    }
+
+    @Test
+    public void testGetAllUniqueCustomersGivenInvalidPageSize() {
+        final ResponseEntity<ErrorResponse> emptyPage = restTemplate.exchange(getUrl("/address-book/customers?after=&pageSize=0"), HttpMethod.GET, null, ErrorResponse.class);
+        assertEquals(HttpStatus.BAD_REQUEST, emptyPage.getStatusCode());
+        final ResponseEntity<ErrorResponse> hugePage = restTemplate.exchange(getUrl("/address-book/customers?after=&pageSize=%d".formatted(Integer.MAX_VALUE)), HttpMethod.GET, null, ErrorResponse.class);
+        assertEquals(HttpStatus.BAD_REQUEST, hugePage.getStatusCode());
+    }
+
+    @Test
+    public void testExportAsCsv() {
+        final AddressBook addressBook = insertAddressBook("Address Book 1");
+        final long annaId = insertCustomer(addressBook, "Anna", "001").getPk();
+        final long bethId = insertCustomer(addressBook, "Beth").getPk();
+        final long emptyId = insertAddressBook("Empty, Book").getPk();
+
+        final ResponseEntity<String> exportResponse = restTemplate.getForEntity(getUrl("/address-book/export?format=CSV"), String.class);
+
+        assertEquals(HttpStatus.OK, exportResponse.getStatusCode());
+        assertEquals("text/csv", exportResponse.getHeaders().getContentType().toString());
+        assertEquals(String.join("\n",
+                "address_book_id,address_book_title,customer_id,customer_name,phone_number",
+                "%d,Address Book 1,%d,Anna,001".formatted(addressBook.getPk(), annaId),
+                "%d,Address Book 1,%d,Beth,".formatted(addressBook.getPk(), bethId),
+                "%d,\"Empty, Book\",,,".formatted(emptyId), ""), exportResponse.getBody());
+    }
+
+    @Test
+    public void testExportAsGzippedNdJson() throws IOException {
+        insertAddressBook("Address Book 1", Map.of("Anna", Set.of("001", "002")));
+        insertAddressBook("Address Book 2", Map.of("Beth", Set.of("003")));
+
+        final ResponseEntity<byte[]> exportResponse = restTemplate.getForEntity(getUrl("/address-book/export?format=NDJSON&gzip=true"), byte[].class);
+
+        assertEquals(HttpStatus.OK, exportResponse.getStatusCode());
+        assertEquals("address-books.ndjson.gz", exportResponse.getHeaders().getContentDisposition().getFilename());
+        final List<String> lines;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new GZIPInputStream(new ByteArrayInputStream(exportResponse.getBody())), StandardCharsets.UTF_8))) {
+            lines = reader.lines().toList();
+        }
+        assertEquals(2, lines.size());
+        final ObjectMapper objectMapper = new ObjectMapper();
+        final JsonNode anna = objectMapper.readTree(lines.get(0));
+        assertEquals("Address Book 1", anna.get("addressBookTitle").asText());
+        assertEquals("Anna", anna.get("name").asText());
+        assertEquals(Set.of("001", "002"), Set.copyOf(objectMapper.convertValue(anna.get("phoneNumbers"), String[].class)));
+        final JsonNode beth = objectMapper.readTree(lines.get(1));
+        assertEquals("Address Book 2", beth.get("addressBookTitle").asText());
+        assertEquals("Beth", beth.get("name").asText());
+    }
+
     protected String getUrl(final String path) {
         return TestUtil.BASE_URL_FORMAT.formatted(port, path);
     }
@@ -1,9 +1,17 @@
 package com.interview.reece.addressbook.integration;
 
+import com.interview.reece.addressbook.aggregate.CustomerSnapshot;
+import com.interview.reece.addressbook.aggregate.CustomerNamePhoneNumber;
+import com.interview.reece.addressbook.aggregate.CustomerPhoneNumber;
+import com.interview.reece.addressbook.aggregate.CustomerSummary;
 import com.interview.reece.addressbook.aggregate.MergeCustomer;
 import com.interview.reece.addressbook.model.AddressBook;
 import com.interview.reece.addressbook.model.Customer;
+import com.interview.reece.addressbook.model.PooledSequenceGenerator;
 import com.interview.reece.addressbook.repository.CustomerRepository;
+import com.interview.reece.addressbook.service.UniqueCustomerMerger;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,18 +20,23 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static com.interview.reece.addressbook.TestUtil.*;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
-@DataJpaTest
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.interview.reece.addressbook.integration.RecordingStatementInspector")
 @Tag(INTEGRATION_TEST)
 @ActiveProfiles(SPRING_PROFILE_TEST)
 public class CustomerRepositoryIntegrationTest {
@@ -99,6 +112,207 @@ public class CustomerRepositoryIntegrationTest {
 
     }
 
+    @Test
+    public void testFindDistinctNameSliceGivenCustomers() {
+
+        insertAddressBook("Address Book 1", Map.of("Anna", Set.of("001", "002", "003"), "Beth", Set.of("010"), "Eli", Set.of("020")));
+        insertAddressBook("Address Book 2", Map.of("Anna", Set.of("101", "102", "003"), "Cell", Set.of("110"), "Dan", Set.of("120")));
+
+        final Slice<MergeCustomer> response = customerRepository.findDistinctNameSlice(PageRequest.of(1, 3, Sort.by("name")));
+
+        assertEquals(2, response.getNumberOfElements());
+        assertFalse(response.hasNext());
+        assertEquals("Dan", response.getContent().get(0).getName());
+        assertEquals("Eli", response.getContent().get(1).getName());
+    }
+
+    @Test
+    public void testStreamNamesWithPhoneNumbersAfterGivenCustomers() {
+
+        insertAddressBook("Address Book 1", Map.of("Anna", Set.of("001", "002", "003"), "Beth", Set.of("010"), "Eli", Set.of("020")));
+        insertAddressBook("Address Book 2", Map.of("Anna", Set.of("101", "102", "003"), "Cell", Set.of("110"), "Dan", Set.of("120")));
+        testEntityManager.flush();
+
+        final List<MergeCustomer> firstPage = findNamesAfter("", 2);
+        assertEquals(2, firstPage.size());
+        assertEquals("Anna", firstPage.get(0).getName());
+        assertMatchesAllUnordered(Set.of("001", "002", "003", "101", "102"), firstPage.get(0).getPhoneNumbers());
+        assertEquals("Beth", firstPage.get(1).getName());
+
+        final List<MergeCustomer> secondPage = findNamesAfter("Beth", 2);
+        assertEquals(2, secondPage.size());
+        assertEquals("Cell", secondPage.get(0).getName());
+        assertEquals("Dan", secondPage.get(1).getName());
+
+        final List<MergeCustomer> lastPage = findNamesAfter("Dan", 2);
+        assertEquals(1, lastPage.size());
+        assertEquals("Eli", lastPage.get(0).getName());
+        assertTrue(lastPage.get(0).getPhoneNumbers().contains("020"));
+    }
+
+    @Test
+    public void testStreamNamesWithPhoneNumbersMergesLikeDistinctName() {
+        insertAddressBook("Address Book 1", Map.of("Anna", Set.of("0412 345 678", "002"), "Beth", Set.of("010"), "Eli", Set.of()));
+        insertAddressBook("Address Book 2", Map.of("Anna", Set.of("0412345678", "102"), "Cell", Set.of("110")));
+        testEntityManager.flush();
+
+        final List<MergeCustomer> customers;
+        try (Stream<CustomerNamePhoneNumber> rows = customerRepository.streamNamesWithPhoneNumbers()) {
+            customers = UniqueCustomerMerger.merge(rows.iterator(), 0, 10);
+        }
+
+        assertEquals(List.of("Anna", "Beth", "Cell"), customers.stream().map(MergeCustomer::getName).toList());
+        assertMatchesAllUnordered(Set.of("0412345678", "002", "102"), customers.get(0).getPhoneNumbers());
+        assertEquals(3, customerRepository.countDistinctNameWithPhoneNumbers());
+        assertEquals(customerRepository.findDistinctName(PageRequest.of(0, 10, Sort.by("name"))).getTotalElements(),
+                customerRepository.countDistinctNameWithPhoneNumbers());
+
+        try (Stream<CustomerNamePhoneNumber> rows = customerRepository.streamNamesWithPhoneNumbersAfter("Anna")) {
+            assertEquals("Beth", UniqueCustomerMerger.merge(rows.iterator(), 0, 1).get(0).getName());
+        }
+    }
+
+    @Test
+    public void testStreamByAddressBookPkReadsPhoneNumbersInOneStatement() {
+        final AddressBook addressBook = testEntityManager.persist(new AddressBook("Address Book 1"));
+        IntStream.range(0, 10).forEach(i -> testEntityManager.persist(new Customer("Customer " + i, Set.of("0" + i, "1" + i), addressBook)));
+        insertAddressBook("Address Book 2", Map.of("Anna", Set.of("001")));
+        testEntityManager.flush();
+        testEntityManager.clear();
+
+        final Statistics statistics = testEntityManager.getEntityManager().getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // the query behind AddressBookService.getAllCustomerByAddressBookId
+        final List<CustomerSnapshot> customers = new ArrayList<>();
+        try (Stream<CustomerPhoneNumber> rows = customerRepository.streamByAddressBookPk(addressBook.getPk())) {
+            CustomerSnapshot.group(rows, customers::add);
+        }
+
+        assertEquals(10, customers.size());
+        assertTrue(customers.stream().allMatch(c -> c.getPhoneNumbers().size() == 2));
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    public void testFindSummariesByAddressBookPkLoadsNoEntities() {
+        final AddressBook addressBook = testEntityManager.persist(new AddressBook("Address Book 1"));
+        IntStream.range(0, 10).forEach(i -> testEntityManager.persist(new Customer("Customer " + i, Set.of("0" + i, "1" + i), addressBook)));
+        testEntityManager.persist(new Customer("No Phone", Set.of(), addressBook));
+        insertAddressBook("Address Book 2", Map.of("Anna", Set.of("001")));
+        testEntityManager.flush();
+        testEntityManager.clear();
+
+        final Statistics statistics = testEntityManager.getEntityManager().getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        final Page<CustomerSummary> page = customerRepository.findSummariesByAddressBookPk(addressBook.getPk(), PageRequest.of(2, 4, Sort.by("pk")));
+        final List<Long> pks = page.map(CustomerSummary::getPk).getContent();
+        final List<CustomerPhoneNumber> rows = customerRepository.findPhoneNumbersByPkIn(pks);
+
+        assertEquals(11, page.getTotalElements());
+        assertEquals(3, page.getNumberOfElements());
+        assertEquals("No Phone", page.getContent().get(2).getName());
+        assertEquals(5, rows.size());
+        assertTrue(rows.stream().anyMatch(row -> "No Phone".equals(row.getName()) && row.getPhoneNumber() == null));
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(0, statistics.getCollectionLoadCount());
+    }
+
+    @Test
+    public void testCustomerIdsAreReservedInBlocks() {
+        final AddressBook addressBook = testEntityManager.persist(new AddressBook("Address Book 1"));
+        final List<Long> ids = IntStream.range(0, 3)
+                .mapToObj(i -> testEntityManager.persist(new Customer("Customer " + i, Set.of(), addressBook)).getPk())
+                .toList();
+
+        assertEquals(ids.get(0) + 1, ids.get(1));
+        assertEquals(ids.get(1) + 1, ids.get(2));
+
+        final Object increment = testEntityManager.getEntityManager()
+                .createNativeQuery("SELECT INCREMENT FROM INFORMATION_SCHEMA.SEQUENCES WHERE SEQUENCE_NAME = 'CUSTOMERS_SEQ'")
+                .getSingleResult();
+        assertEquals(PooledSequenceGenerator.DEFAULT_ALLOCATION_SIZE, Long.parseLong(String.valueOf(increment)));
+    }
+
+    @Test
+    public void testFindByIdServedFromSecondLevelCache() {
+        final AddressBook addressBook = testEntityManager.persist(new AddressBook("Address Book 1"));
+        final long customerId = testEntityManager.persist(new Customer("Anna", Set.of("001", "002"), addressBook)).getPk();
+        testEntityManager.flush();
+        testEntityManager.clear();
+
+        final Statistics statistics = testEntityManager.getEntityManager().getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+
+        assertEquals(2, customerRepository.findById(customerId).orElseThrow().getPhoneNumbers().size());
+        testEntityManager.clear();
+        statistics.clear();
+
+        final Customer customer = customerRepository.findById(customerId).orElseThrow();
+
+        assertEquals(2, customer.getPhoneNumbers().size());
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(2, statistics.getSecondLevelCacheHitCount());
+    }
+
+    @Test
+    public void testMergeQueryPlanUsesIndexes() {
+        insertIndexedCustomers();
+
+        RecordingStatementInspector.clear();
+        try (Stream<CustomerNamePhoneNumber> rows = customerRepository.streamNamesWithPhoneNumbers()) {
+            rows.findFirst();
+        }
+        final String plan = explain(RecordingStatementInspector.last());
+
+        assertTrue(plan.contains("IDX_CUSTOMERS_NAME_PK"), plan);
+        assertFalse(plan.contains("tableScan"), plan);
+    }
+
+    @Test
+    public void testMergeQueryAfterNamePlanUsesIndexes() {
+        insertIndexedCustomers();
+
+        RecordingStatementInspector.clear();
+        try (Stream<CustomerNamePhoneNumber> rows = customerRepository.streamNamesWithPhoneNumbersAfter("Customer 50")) {
+            rows.findFirst();
+        }
+        final String plan = explain(RecordingStatementInspector.last().replace("?", "'Customer 50'"));
+
+        assertTrue(plan.contains("IDX_CUSTOMERS_NAME_PK"), plan);
+        assertFalse(plan.contains("tableScan"), plan);
+    }
+
+    @Test
+    public void testCustomersOfAddressBookPlanUsesIndex() {
+        final long addressBookId = insertIndexedCustomers();
+
+        final String plan = explain("SELECT c.pk, c.name FROM customers c WHERE c.address_book_id = %d AND c.pk > 0 ORDER BY c.pk LIMIT 20".formatted(addressBookId));
+
+        assertTrue(plan.contains("IDX_CUSTOMERS_ADDRESS_BOOK_PK"), plan);
+        assertFalse(plan.contains("tableScan"), plan);
+    }
+
+    private long insertIndexedCustomers() {
+        final AddressBook addressBook = testEntityManager.persist(new AddressBook("Address Book 1"));
+        IntStream.range(0, 200).forEach(i -> testEntityManager.persist(new Customer("Customer " + i, Set.of("0" + i, "1" + i), addressBook)));
+        insertAddressBook("Address Book 2", Map.of("Anna", Set.of("001")));
+        testEntityManager.flush();
+        testEntityManager.getEntityManager().createNativeQuery("ANALYZE").executeUpdate();
+        return addressBook.getPk();
+    }
+
+    private List<MergeCustomer> findNamesAfter(final String after, final int limit) {
+        try (Stream<CustomerNamePhoneNumber> rows = customerRepository.streamNamesWithPhoneNumbersAfter(after)) {
+            return UniqueCustomerMerger.merge(rows.iterator(), 0, limit);
+        }
+    }
+
+    private String explain(final String query) {
+        return String.valueOf(testEntityManager.getEntityManager().createNativeQuery("EXPLAIN " + query).getSingleResult());
+    }
+
     private void insertAddressBook(final String title, Map<String, Set<String>> customers) {
         final AddressBook addressBook = testEntityManager.persist(new AddressBook(title));
 
@@ -0,0 +1,74 @@
+package com.interview.reece.addressbook.integration;
+
+import com.interview.reece.addressbook.AddressBookApplication;
+import com.interview.reece.addressbook.dto.CustomerDTO;
+import com.interview.reece.addressbook.dto.request.AddressBookRequestDTO;
+import com.interview.reece.addressbook.dto.request.CustomerRequestDTO;
+import com.interview.reece.addressbook.repository.ReactiveCustomerRepository;
+import com.interview.reece.addressbook.service.AddressBookService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+import static com.interview.reece.addressbook.TestUtil.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag(INTEGRATION_TEST)
+public class FileStorageIntegrationTest {
+
+    @TempDir
+    Path databaseDir;
+
+    @Test
+    public void testCustomersSurviveRestart() {
+        final long addressBookId;
+        try (ConfigurableApplicationContext context = start()) {
+            final AddressBookService addressBookService = context.getBean(AddressBookService.class);
+            addressBookId = addressBookService.createAddressBook(new AddressBookRequestDTO("Address Book 1")).getId();
+            addressBookService.createCustomer(addressBookId, new CustomerRequestDTO("Anna", Set.of("001", "002")));
+        }
+        assertTrue(Files.exists(databaseDir.resolve("addressbookdb.mv.db")));
+
+        try (ConfigurableApplicationContext context = start()) {
+            final AddressBookService addressBookService = context.getBean(AddressBookService.class);
+            final List<CustomerDTO> customers = addressBookService.getAllCustomerByAddressBookId(addressBookId);
+            assertEquals(1, customers.size());
+            assertEquals("Anna", customers.get(0).getName());
+            assertEquals(Set.of("001", "002"), customers.get(0).getPhoneNumbers());
+            // the indexes are rebuilt from the file
+            assertEquals(1, addressBookService.getPhoneNumberOwners("002").size());
+        }
+    }
+
+    @Test
+    public void testReactiveReadsTheSameFile() {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(AddressBookApplication.class)
+                .profiles(SPRING_PROFILE_TEST, "file", SPRING_PROFILE_REACTIVE)
+                .properties("addressbook.db.dir=" + databaseDir.toAbsolutePath(), "server.port=0")
+                .run()) {
+            final AddressBookService addressBookService = context.getBean(AddressBookService.class);
+            final long addressBookId = addressBookService.createAddressBook(new AddressBookRequestDTO("Address Book 1")).getId();
+            addressBookService.createCustomer(addressBookId, new CustomerRequestDTO("Anna", Set.of("001")));
+
+            final List<CustomerDTO> customers = context.getBean(ReactiveCustomerRepository.class).findByAddressBookId(addressBookId).collectList().block();
+            assertEquals(1, customers.size());
+            assertEquals("Anna", customers.get(0).getName());
+        }
+    }
+
+    private ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(AddressBookApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles(SPRING_PROFILE_TEST, "file")
+                .properties("addressbook.db.dir=" + databaseDir.toAbsolutePath())
+                .run();
+    }
+}
@@ -0,0 +1,56 @@
+package com.interview.reece.addressbook.integration;
+
+import com.interview.reece.addressbook.dto.CustomerDTO;
+import com.interview.reece.addressbook.dto.CustomerPageResult;
+import com.interview.reece.addressbook.dto.request.CustomerRequestDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Set;
+
+import static com.interview.reece.addressbook.TestUtil.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "addressbook.db.name=metricstestdb")
+@AutoConfigureObservability(tracing = false)
+@Tag(INTEGRATION_TEST)
+@ActiveProfiles(SPRING_PROFILE_TEST)
+public class MetricsIntegrationTest extends AbstractAddressBookIntegrationTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @BeforeEach
+    public void prepare() {
+        cleanDB();
+    }
+
+    @Test
+    public void testPrometheusEndpointExposesServiceRepositoryHibernateAndPoolMetrics() {
+        final long addressBookId = insertAddressBook("Address Book 1").getPk();
+        assertEquals(HttpStatus.CREATED, restTemplate.postForEntity("/address-book/books/%d/customers".formatted(addressBookId),
+                new CustomerRequestDTO("Martha", Set.of("0123121")), CustomerDTO.class).getStatusCode());
+        assertEquals(HttpStatus.OK, restTemplate.getForEntity("/address-book/customers", CustomerPageResult.class).getStatusCode());
+
+        final ResponseEntity<String> response = restTemplate.getForEntity("/actuator/prometheus", String.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        final String metrics = response.getBody();
+        assertTrue(metrics.contains("addressbook_service_seconds_bucket{"), metrics);
+        assertTrue(metrics.contains("method=\"createCustomer\""), metrics);
+        assertTrue(metrics.contains("method=\"getAllUniqueCustomers\""), metrics);
+        assertTrue(metrics.contains("spring_data_repository_invocations_seconds_bucket{"), metrics);
+        assertTrue(metrics.contains("repository=\"CustomerRepository\""), metrics);
+        assertTrue(metrics.contains("hibernate_statements_total"), metrics);
+        assertTrue(metrics.contains("hibernate_second_level_cache_requests_total"), metrics);
+        assertTrue(metrics.contains("hikaricp_connections_active"), metrics);
+    }
+}
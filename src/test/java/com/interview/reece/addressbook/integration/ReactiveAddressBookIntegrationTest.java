@@ -0,0 +1,138 @@
+package com.interview.reece.addressbook.integration;
+
+import com.interview.reece.addressbook.dto.AddressBookDTO;
+import com.interview.reece.addressbook.dto.CustomerDTO;
+import com.interview.reece.addressbook.dto.request.CustomerRequestDTO;
+import com.interview.reece.addressbook.model.AddressBook;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.interview.reece.addressbook.TestUtil.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "addressbook.db.name=reactivetestdb")
+@Tag(INTEGRATION_TEST)
+@ActiveProfiles({SPRING_PROFILE_TEST, SPRING_PROFILE_REACTIVE})
+public class ReactiveAddressBookIntegrationTest extends AbstractAddressBookIntegrationTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @BeforeEach
+    public void prepare() {
+        cleanDB();
+    }
+
+    @Test
+    public void testGetAddressBookCustomersGivenExistingCustomer() {
+        final AddressBook addressBook = insertAddressBook("Address Book 1", Map.of("Merry Go", Set.of("001", "002"), "Round Robin", Set.of()));
+        insertAddressBook("Address Book 2", Map.of("Jose Jan", Set.of("003")));
+
+        final List<CustomerDTO> customers = webTestClient.get().uri("/address-book/books/{bookId}/customers", addressBook.getPk())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(CustomerDTO.class)
+                .returnResult().getResponseBody();
+
+        assertEquals(2, customers.size());
+        assertContains(customers, c -> "Merry Go".equals(c.getName()) && c.getPhoneNumbers().equals(Set.of("001", "002")));
+        assertContains(customers, c -> "Round Robin".equals(c.getName()) && c.getPhoneNumbers().isEmpty());
+    }
+
+    @Test
+    public void testGetAddressBookCustomersGivenNotExisting() {
+        webTestClient.get().uri("/address-book/books/{bookId}/customers", 0)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    public void testStreamAddressBookCustomers() {
+        final AddressBook addressBook = insertAddressBook("Address Book 1", Map.of("Merry Go", Set.of("001"), "Round Robin", Set.of("002")));
+
+        final List<CustomerDTO> customers = webTestClient.get().uri("/address-book/books/{bookId}/customers/stream", addressBook.getPk())
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(CustomerDTO.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+
+        assertEquals(2, customers.size());
+        assertTrue(customers.get(0).getId() < customers.get(1).getId());
+    }
+
+    @Test
+    public void testStreamUniqueCustomers() {
+        insertAddressBook("Address Book 1", Map.of("Anna", Set.of("001", "002"), "Beth", Set.of("010")));
+        insertAddressBook("Address Book 2", Map.of("Anna", Set.of("101", "002"), "Cell", Set.of()));
+
+        final List<CustomerDTO> customers = webTestClient.get().uri("/address-book/customers/stream")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(CustomerDTO.class)
+                .returnResult().getResponseBody();
+
+        assertEquals(List.of("Anna", "Beth"), customers.stream().map(CustomerDTO::getName).toList());
+        assertEquals(Set.of("001", "002", "101"), customers.get(0).getPhoneNumbers());
+    }
+
+    @Test
+    public void testCreateCustomerIsSearchable() {
+        final AddressBook addressBook = insertAddressBook("Address Book 1");
+
+        webTestClient.post().uri("/address-book/books/{bookId}/customers", addressBook.getPk())
+                .bodyValue(new CustomerRequestDTO("Martha", Set.of("0123121")))
+                .exchange()
+                .expectStatus().isCreated();
+
+        final List<CustomerDTO> customers = webTestClient.get().uri("/address-book/customers/search?q=mar")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(CustomerDTO.class)
+                .returnResult().getResponseBody();
+        assertEquals(1, customers.size());
+        assertEquals(Set.of("0123121"), customers.get(0).getPhoneNumbers());
+    }
+
+    @Test
+    public void testCreateCustomerGivenInvalidInput() {
+        final AddressBook addressBook = insertAddressBook("Address Book 1");
+
+        webTestClient.post().uri("/address-book/books/{bookId}/customers", addressBook.getPk())
+                .bodyValue(new CustomerRequestDTO("", Set.of("0123121")))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.errors").isNotEmpty();
+    }
+
+    @Test
+    public void testGetAddressBooksGivenUnchangedETag() {
+        insertAddressBook("Address Book 1");
+
+        final String eTag = webTestClient.get().uri("/address-book/books")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(AddressBookDTO.class).hasSize(1)
+                .returnResult().getResponseHeaders().getETag();
+        assertNotNull(eTag);
+
+        webTestClient.get().uri("/address-book/books")
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .exchange()
+                .expectStatus().isNotModified();
+    }
+}
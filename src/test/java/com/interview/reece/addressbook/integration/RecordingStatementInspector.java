@@ -0,0 +1,31 @@
+package com.interview.reece.addressbook.integration;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Remembers the SQL Hibernate prepares, so that tests can EXPLAIN the statements the repositories actually run
+ */
+public class RecordingStatementInspector implements StatementInspector {
+
+    private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String inspect(final String sql) {
+        STATEMENTS.add(sql);
+        return sql;
+    }
+
+    public static void clear() {
+        STATEMENTS.clear();
+    }
+
+    /**
+     * @return the last statement prepared since {@link #clear()}
+     */
+    public static String last() {
+        return STATEMENTS.get(STATEMENTS.size() - 1);
+    }
+}
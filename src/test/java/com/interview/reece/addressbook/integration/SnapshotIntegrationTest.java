@@ -0,0 +1,74 @@
+package com.interview.reece.addressbook.integration;
+
+import com.interview.reece.addressbook.AddressBookApplication;
+import com.interview.reece.addressbook.dto.CustomerDTO;
+import com.interview.reece.addressbook.dto.SnapshotResult;
+import com.interview.reece.addressbook.dto.request.AddressBookRequestDTO;
+import com.interview.reece.addressbook.dto.request.CustomerRequestDTO;
+import com.interview.reece.addressbook.service.AddressBookService;
+import com.interview.reece.addressbook.service.DatabaseSnapshotService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+import static com.interview.reece.addressbook.TestUtil.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag(INTEGRATION_TEST)
+public class SnapshotIntegrationTest {
+
+    @TempDir
+    Path snapshotDir;
+
+    @Test
+    public void testSnapshotIsRestoredAtStartup() throws IOException {
+        final Path snapshot = snapshotDir.resolve("addressbook.snapshot");
+        final long addressBookId;
+        final long customerId;
+        try (ConfigurableApplicationContext context = start("snapshotsource", snapshot, false)) {
+            final AddressBookService addressBookService = context.getBean(AddressBookService.class);
+            addressBookId = addressBookService.createAddressBook(new AddressBookRequestDTO("Address Book 1")).getId();
+            customerId = addressBookService.createCustomer(addressBookId, new CustomerRequestDTO("Anna", Set.of("001", "002"))).getId();
+            addressBookService.createCustomer(addressBookId, new CustomerRequestDTO("Beth", Set.of()));
+            addressBookService.createAddressBook(new AddressBookRequestDTO("Empty"));
+
+            final SnapshotResult result = context.getBean(DatabaseSnapshotService.class).writeSnapshot();
+            assertEquals(2, result.getAddressBooks());
+            assertEquals(2, result.getCustomers());
+            assertEquals(2, result.getPhoneNumbers());
+        }
+
+        try (ConfigurableApplicationContext context = start("snapshottarget", snapshot, true)) {
+            final AddressBookService addressBookService = context.getBean(AddressBookService.class);
+            assertEquals(2, addressBookService.getAllAddressBooks().size());
+            final List<CustomerDTO> customers = addressBookService.getAllCustomerByAddressBookId(addressBookId);
+            assertEquals(2, customers.size());
+            assertEquals(Set.of("001", "002"), customers.stream().filter(c -> c.getId() == customerId).findFirst().orElseThrow().getPhoneNumbers());
+            // the indexes are built from the restored rows
+            assertEquals(1, addressBookService.getPhoneNumberOwners("002").size());
+
+            // the sequences continue after the restored ids
+            final long newCustomerId = addressBookService.createCustomer(addressBookId, new CustomerRequestDTO("Cara", Set.of("003"))).getId();
+            assertTrue(customers.stream().allMatch(c -> c.getId() < newCustomerId));
+            assertTrue(addressBookService.createAddressBook(new AddressBookRequestDTO("Address Book 3")).getId() > addressBookId);
+        }
+    }
+
+    private ConfigurableApplicationContext start(final String databaseName, final Path snapshot, final boolean restore) {
+        return new SpringApplicationBuilder(AddressBookApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles(SPRING_PROFILE_TEST)
+                // command line arguments, so the database name wins over the test profile's
+                .run("--addressbook.db.name=" + databaseName,
+                        "--addressbook.snapshot.file=" + snapshot.toAbsolutePath(),
+                        "--addressbook.snapshot.restore-on-startup=" + restore);
+    }
+}
@@ -0,0 +1,77 @@
+package com.interview.reece.addressbook.integration;
+
+import com.interview.reece.addressbook.aggregate.CustomerSnapshot;
+import com.interview.reece.addressbook.dto.CustomerDTO;
+import com.interview.reece.addressbook.dto.PhoneNumberOwnerDTO;
+import com.interview.reece.addressbook.dto.request.CustomerRequestDTO;
+import com.interview.reece.addressbook.model.AddressBook;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static com.interview.reece.addressbook.TestUtil.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"addressbook.db.name=writebehindtestdb", "addressbook.write-behind.enabled=true", "addressbook.write-behind.batch-size=10"})
+@Tag(INTEGRATION_TEST)
+@ActiveProfiles(SPRING_PROFILE_TEST)
+public class WriteBehindIntegrationTest extends AbstractAddressBookIntegrationTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @BeforeEach
+    public void prepare() {
+        cleanDB();
+    }
+
+    @Test
+    public void testCreateCustomerQueuedThenWritten() {
+        final long addressBookId = insertAddressBook("Address Book 1").getPk();
+
+        final List<Long> queuedIds = IntStream.range(0, 25)
+                .mapToObj(i -> restTemplate.postForEntity("/address-book/books/%d/customers".formatted(addressBookId),
+                        new CustomerRequestDTO("Queued " + i, Set.of("01" + i)), CustomerDTO.class))
+                .peek(response -> assertEquals(HttpStatus.ACCEPTED, response.getStatusCode()))
+                .map(response -> response.getBody().getId())
+                .toList();
+        assertEquals(25, Set.copyOf(queuedIds).size());
+
+        // customers are written in queue order, so the earlier ones are committed once this one is
+        final ResponseEntity<CustomerDTO> waited = restTemplate.postForEntity("/address-book/books/%d/customers?wait=true".formatted(addressBookId),
+                new CustomerRequestDTO("Martha", Set.of("0123121", "0121022")), CustomerDTO.class);
+        assertEquals(HttpStatus.CREATED, waited.getStatusCode());
+
+        final List<CustomerSnapshot> customers = findCustomers(addressBookId);
+        assertEquals(26, customers.size());
+        assertTrue(customers.stream().map(CustomerSnapshot::getPk).toList().containsAll(queuedIds));
+        final CustomerSnapshot martha = customers.stream().filter(c -> c.getPk() == waited.getBody().getId()).findFirst().orElseThrow();
+        assertEquals(Set.of("0123121", "0121022"), martha.getPhoneNumbers());
+
+        final PhoneNumberOwnerDTO[] owners = restTemplate.getForObject("/address-book/phone-numbers/0123121", PhoneNumberOwnerDTO[].class);
+        assertEquals(1, owners.length);
+    }
+
+    @Test
+    public void testCreateCustomerQueuedIdsDoNotCollideWithDirectInserts() {
+        final AddressBook addressBook = insertAddressBook("Address Book 1");
+
+        final long queuedId = restTemplate.postForEntity("/address-book/books/%d/customers?wait=true".formatted(addressBook.getPk()),
+                new CustomerRequestDTO("Queued", Set.of()), CustomerDTO.class).getBody().getId();
+        final long insertedId = insertCustomer(addressBook, "Inserted").getPk();
+
+        assertNotEquals(queuedId, insertedId);
+        assertEquals(2, findCustomers(addressBook.getPk()).size());
+    }
+}